@@ -25,6 +25,10 @@ android {
             )
         }
     }
+    androidResources {
+        // Stored uncompressed so BattleshipApplication can memory-map it.
+        noCompress += "bin"
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
@@ -33,9 +37,13 @@ android {
 
 dependencies {
 
+    implementation(project(":engine"))
     implementation(libs.appcompat)
     implementation(libs.material)
-    implementation(libs.gridlayout)
+    implementation(libs.room.runtime)
+    annotationProcessor(libs.room.compiler)
+    // Installs src/main/baseline-prof.txt on devices that did not get the app from Play.
+    implementation(libs.profileinstaller)
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
@@ -0,0 +1,76 @@
+package com.example.battleshipgame;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.os.SystemClock;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.battleshipgame.engine.metrics.Histogram;
+import com.example.battleshipgame.engine.metrics.Metrics;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+// Taps "normal" in MainActivity and times it to the first frame of the game, as GameActivity
+// reports it in the "startup" timer. The first launch in the process pays for class loading
+// and an empty JIT ("cold"), the rest do not ("warm"); a true cold start from a dead process
+// is outside what an instrumented test can do. Results are sent as instrumentation status
+// (startupColdMillis, startupWarmMillis) for CI to keep, and either one over the budget fails:
+//
+//   ./gradlew :app:connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.startupBudgetMillis=400
+@RunWith(AndroidJUnit4.class)
+public class StartupBudgetTest {
+    private static final long DEFAULT_BUDGET_MILLIS = 500;
+    private static final int WARM_LAUNCHES = 5;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    public void gameIsOnScreenWithinBudget() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        long budget = Long.parseLong(InstrumentationRegistry.getArguments()
+                .getString("startupBudgetMillis", String.valueOf(DEFAULT_BUDGET_MILLIS)));
+
+        long cold = launchGame(instrumentation);
+        long warm = Long.MAX_VALUE;
+        for (int i = 0; i < WARM_LAUNCHES; i++) {
+            warm = Math.min(warm, launchGame(instrumentation));
+        }
+
+        Bundle results = new Bundle();
+        results.putLong("startupColdMillis", cold);
+        results.putLong("startupWarmMillis", warm);
+        instrumentation.sendStatus(0, results);
+        assertTrue("cold start took " + cold + " ms, budget " + budget, cold <= budget);
+        assertTrue("warm start took " + warm + " ms, budget " + budget, warm <= budget);
+    }
+
+    // Milliseconds from the tap to the game's first frame.
+    private static long launchGame(Instrumentation instrumentation) {
+        Instrumentation.ActivityMonitor monitor = instrumentation.addMonitor(GameActivity.class.getName(), null, false);
+        try (ActivityScenario<MainActivity> main = ActivityScenario.launch(MainActivity.class)) {
+            Metrics.reset();
+            main.onActivity(activity -> activity.findViewById(R.id.normal_button).performClick());
+            Activity game = instrumentation.waitForMonitorWithTimeout(monitor, TIMEOUT_MILLIS);
+            assertNotNull("GameActivity did not start", game);
+
+            Histogram startup = GameMetrics.STARTUP.snapshot();
+            long deadline = SystemClock.uptimeMillis() + TIMEOUT_MILLIS;
+            while (startup.count() == 0) {
+                assertTrue("GameActivity never drew the game", SystemClock.uptimeMillis() < deadline);
+                SystemClock.sleep(10);
+                startup = GameMetrics.STARTUP.snapshot();
+            }
+            instrumentation.runOnMainSync(game::finish);
+            instrumentation.waitForIdleSync();
+            return startup.max() / 1000;
+        } finally {
+            instrumentation.removeMonitor(monitor);
+        }
+    }
+}
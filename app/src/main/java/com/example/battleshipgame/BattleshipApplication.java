@@ -0,0 +1,36 @@
+package com.example.battleshipgame;
+
+import android.app.Application;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import com.example.battleshipgame.engine.OpeningBook;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+public class BattleshipApplication extends Application {
+
+    private static final String TAG = "BattleshipApplication";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        installOpeningBook();
+    }
+
+    // Maps the opening book straight out of the APK: the asset is stored uncompressed, so the
+    // only work at startup is indexing a few hundred bytes. Without it the AI computes its
+    // opening moves as before.
+    private void installOpeningBook() {
+        try (AssetFileDescriptor asset = getAssets().openFd("openings.bin");
+             FileInputStream in = asset.createInputStream()) {
+            FileChannel channel = in.getChannel();
+            OpeningBook.install(OpeningBook.read(
+                    channel.map(FileChannel.MapMode.READ_ONLY, asset.getStartOffset(), asset.getLength())));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Could not load the opening book", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.battleshipgame;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.example.battleshipgame.engine.AttackResult;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.ChangeSet;
+
+// Draws one board straight from the engine state on a Canvas. Touches map to cells by
+// arithmetic, and a changed cell invalidates only its own rectangle. Whether a touch is acted
+// on is up to the listener. Boards too wide for the screen shrink their cells to fit, down to
+// a pixel per cell with no gaps.
+public class BoardView extends View {
+
+    public interface OnCellClickListener {
+        void onCellClicked(BoardView view, int row, int col);
+    }
+
+    private static final int CELL_DP = 25;
+    private static final int GAP_PX = 4;
+
+    private final Paint paint = new Paint();
+    private final Rect clip = new Rect();
+    private final int cellSize;
+    private int pitch;
+    private int gap;
+    private Board board;
+    private boolean showShips;
+    private OnCellClickListener listener;
+
+    public BoardView(Context context) {
+        this(context, null);
+    }
+
+    public BoardView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        cellSize = (int) (context.getResources().getDisplayMetrics().density * CELL_DP);
+        pitch = cellSize + GAP_PX;
+        gap = GAP_PX;
+    }
+
+    public void setBoard(Board board, boolean showShips) {
+        this.board = board;
+        this.showShips = showShips;
+        requestLayout();
+        invalidate();
+    }
+
+    public void setOnCellClickListener(OnCellClickListener listener) {
+        this.listener = listener;
+    }
+
+    // Redraws only the cells the board's last shot changed.
+    public void applyChanges() {
+        long startedAt = GameMetrics.APPLY_CHANGES.start();
+        ChangeSet changes = board.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            invalidateCell(changes.getRow(i), changes.getCol(i));
+        }
+        GameMetrics.APPLY_CHANGES.stop(startedAt);
+    }
+
+    public void invalidateCell(int row, int col) {
+        invalidate(col * pitch, row * pitch, (col + 1) * pitch, (row + 1) * pitch);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (board == null) {
+            setMeasuredDimension(resolveSize(0, widthMeasureSpec), resolveSize(0, heightMeasureSpec));
+            return;
+        }
+        pitch = cellSize + GAP_PX;
+        if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            pitch = Math.min(pitch, MeasureSpec.getSize(widthMeasureSpec) / board.getWidth());
+        }
+        if (MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            pitch = Math.min(pitch, MeasureSpec.getSize(heightMeasureSpec) / board.getHeight());
+        }
+        pitch = Math.max(pitch, 1);
+        gap = pitch >= 4 * GAP_PX ? GAP_PX : 0;
+        setMeasuredDimension(resolveSize(board.getWidth() * pitch, widthMeasureSpec),
+                resolveSize(board.getHeight() * pitch, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (board == null) {
+            return;
+        }
+        long startedAt = GameMetrics.DRAW.start();
+        drawCells(canvas);
+        GameMetrics.DRAW.stop(startedAt);
+    }
+
+    private void drawCells(Canvas canvas) {
+        int half = gap / 2;
+        int size = pitch - gap;
+        if (!canvas.getClipBounds(clip)) {
+            return;
+        }
+        int fromRow = Math.max(clip.top / pitch, 0);
+        int toRow = Math.min((clip.bottom - 1) / pitch, board.getHeight() - 1);
+        int fromCol = Math.max(clip.left / pitch, 0);
+        int toCol = Math.min((clip.right - 1) / pitch, board.getWidth() - 1);
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                paint.setColor(colorOf(row, col));
+                int left = col * pitch + half;
+                int top = row * pitch + half;
+                canvas.drawRect(left, top, left + size, top + size, paint);
+            }
+        }
+    }
+
+    private int colorOf(int row, int col) {
+        AttackResult result = board.getAttackResult(row, col);
+        if (result == AttackResult.HIT) return Color.RED;
+        if (result == AttackResult.MISS) return Color.BLACK;
+        return showShips && board.isShip(row, col) ? Color.BLUE : Color.GRAY;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (board == null) {
+            return false;
+        }
+        if (event.getActionMasked() == MotionEvent.ACTION_UP) {
+            int row = (int) event.getY() / pitch;
+            int col = (int) event.getX() / pitch;
+            if (row >= 0 && row < board.getHeight() && col >= 0 && col < board.getWidth() && listener != null) {
+                performClick();
+                listener.onCellClicked(this, row, col);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.battleshipgame;
+
+// One row of StatsDao.summaries().
+public class DifficultySummary {
+    public String difficulty;
+    public int games;
+    public int wins;
+    public double averageShots;
+    public double averageDurationMillis;
+}
@@ -0,0 +1,42 @@
+package com.example.battleshipgame;
+
+import android.view.Choreographer;
+
+// Records the interval between consecutive vsync callbacks into GameMetrics.FRAME and counts a
+// frame as janky when the interval exceeds one and a half refresh periods, i.e. at least one
+// vsync was missed. Only registered while running, so it costs nothing when metrics are off.
+final class FrameMonitor implements Choreographer.FrameCallback {
+    private final long jankNanos;
+    private long lastFrameNanos;
+    private boolean running;
+
+    FrameMonitor(float refreshRate) {
+        this.jankNanos = (long) (1.5e9 / refreshRate);
+    }
+
+    void start() {
+        if (running) return;
+        running = true;
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void stop() {
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+        if (lastFrameNanos != 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            GameMetrics.FRAME.record(interval / 1000);
+            if (interval > jankNanos) {
+                GameMetrics.JANK.increment();
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
@@ -1,43 +1,84 @@
 package com.example.battleshipgame;
 
-import android.graphics.Color;
-import android.graphics.drawable.ColorDrawable;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
-import android.widget.Button;
-import android.widget.GridLayout;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import com.example.battleshipgame.engine.AdjacencyRule;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Difficulty;
+import com.example.battleshipgame.engine.Game;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.GameSnapshot;
+import com.example.battleshipgame.engine.MoveJournal;
+import com.example.battleshipgame.engine.Opponent;
+import com.example.battleshipgame.engine.ShotResult;
+import com.example.battleshipgame.engine.metrics.Metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class GameActivity extends AppCompatActivity {
 
-    enum Difficulty {
-        EASY,
-        NORMAL,
-        MULTIPLAYER
-    }
-
-    public enum AttackResult {
-        MISS,
-        HIT,
-        UNKNOWN
-    }
+    private static final String TAG = "GameActivity";
+    private static final String SNAPSHOT_KEY = "snapshot";
+    private static final long OVERLAY_REFRESH_MILLIS = 500;
+    // How long an opponent move waits before it is shown, unless the Intent's "opponentDelay"
+    // extra says otherwise; 0 plays moves as soon as they are computed.
+    private static final long OPPONENT_DELAY_MILLIS = 500;
+    // Deals or restores games off the main thread, so the first frame does not wait on fleet
+    // generation, the opponent's set-up or the disk.
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private Difficulty opponentDifficulty = Difficulty.EASY;
-    private static final int GRID_SIZE = 10;
-    private boolean isPlayerTurn = true;
+    private GameConfig config;
     private TextView statusText;
-    private final List<Ship> playerShips = new ArrayList<>();
-    private final List<Ship> opponentShips = new ArrayList<>();
-    private final AttackResult[][] playerHits = new AttackResult[GRID_SIZE][GRID_SIZE];
-    private final AttackResult[][] opponentHits = new AttackResult[GRID_SIZE][GRID_SIZE];
+    private BoardView playerBoard;
+    private BoardView opponentBoard;
+    private Game game;
+    private Opponent opponent;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private TurnScheduler turnScheduler;
+    private SnapshotStore snapshotStore;
+    private MoveJournal journal;
+    private StatsStore statsStore;
+    // Time played in this activity, for the stats.
+    private long playStartedAt;
+    // The single input gate: board touches are ignored while it is closed, which includes
+    // until the game has loaded.
+    private boolean acceptingInput;
+    // A snapshot handed over by a rotation that came before the game had loaded.
+    private byte[] pendingSnapshot;
+    // Debuggable builds only: frame timing and the metrics overlay.
+    private FrameMonitor frameMonitor;
+    private TextView metricsOverlay;
+    private final Runnable refreshOverlay = new Runnable() {
+        @Override
+        public void run() {
+            metricsOverlay.setText(Metrics.summary());
+            mainHandler.postDelayed(this, OVERLAY_REFRESH_MILLIS);
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,13 +86,6 @@ public class GameActivity extends AppCompatActivity {
         setContentView(R.layout.activity_game);
         String mode = getIntent().getStringExtra("mode");
 
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                playerHits[i][j] = AttackResult.UNKNOWN;
-                opponentHits[i][j] = AttackResult.UNKNOWN;
-            }
-        }
-
         if (mode != null) {
             switch (mode) {
                 case "easyOpponent":
@@ -60,479 +94,387 @@ public class GameActivity extends AppCompatActivity {
                 case "normalOpponent":
                     opponentDifficulty = Difficulty.NORMAL;
                     break;
+                case "hardOpponent":
+                    opponentDifficulty = Difficulty.HARD;
+                    break;
+                case "expertOpponent":
+                    opponentDifficulty = Difficulty.EXPERT;
+                    break;
                 case "multiplayer":
                     opponentDifficulty = Difficulty.MULTIPLAYER;
                     break;
             }
         }
 
-        GridLayout playerBoard = findViewById(R.id.playerBoard);
-        GridLayout opponentBoard = findViewById(R.id.opponentBoard);
+        playerBoard = findViewById(R.id.playerBoard);
+        opponentBoard = findViewById(R.id.opponentBoard);
         statusText = findViewById(R.id.statusText);
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            Metrics.setEnabled(true);
+            frameMonitor = new FrameMonitor(getWindowManager().getDefaultDisplay().getRefreshRate());
+            metricsOverlay = findViewById(R.id.metricsOverlay);
+            metricsOverlay.setVisibility(View.VISIBLE);
+        }
 
-        generateShips(playerShips, "player");
-        generateShips(opponentShips, "opponent");
+        snapshotStore = new SnapshotStore(this);
+        statsStore = new StatsStore(this);
+        playStartedAt = SystemClock.elapsedRealtime();
+        turnScheduler = new TurnScheduler(mainHandler, getIntent().getLongExtra("opponentDelay", OPPONENT_DELAY_MILLIS));
+        pendingSnapshot = savedInstanceState != null ? savedInstanceState.getByteArray(SNAPSHOT_KEY) : null;
+        boolean fromDisk = pendingSnapshot == null && getIntent().getBooleanExtra("resume", false);
+        GameConfig requested = readConfig();
+        if (pendingSnapshot == null && !fromDisk) {
+            // Empty boards of the right size hold the layout until the fleets are dealt.
+            playerBoard.setBoard(new Board(requested), false);
+            opponentBoard.setBoard(new Board(requested), false);
+        }
+        if (savedInstanceState == null) {
+            reportStartupWhenDrawn();
+        }
 
-        fillGrid(playerBoard, playerShips, true);
-        fillGrid(opponentBoard, opponentShips, false);
+        byte[] saved = pendingSnapshot;
+        Difficulty difficulty = opponentDifficulty;
+        LOADER.execute(() -> {
+            LoadedGame loaded = loadGame(saved, fromDisk, requested, difficulty);
+            mainHandler.post(() -> showGame(loaded));
+        });
     }
 
-    public class Ship {
-        private final int size;
-        private final int row;
-        private final int col;
-        private final boolean isVertical;
-        private final String owner;
-        private final List<Cell> cells;
-
-        public Ship(int size, int row, int col, boolean isVertical, String owner) {
-            this.size = size;
-            this.row = row;
-            this.col = col;
-            this.isVertical = isVertical;
-            this.owner = owner;
-            this.cells = new ArrayList<>();
-
-            for (int i = 0; i < size; i++) {
-                if (isVertical) {
-                    cells.add(new Cell(row + i, col));
-                } else {
-                    cells.add(new Cell(row, col + i));
-                }
-            }
+    // Runs on the loader thread and touches no activity state but the stores.
+    private LoadedGame loadGame(byte[] saved, boolean fromDisk, GameConfig config, Difficulty difficulty) {
+        // Fleets are generated from this seed alone, so the journal can rebuild them.
+        long seed = new Random().nextLong();
+        Random random = new Random(seed);
+        GameSnapshot snapshot = restoreSnapshot(saved, fromDisk, random);
+        if (snapshot != null) {
+            Game game = snapshot.getGame();
+            Opponent opponent = snapshot.getOpponent();
+            return new LoadedGame(game, opponent,
+                    openJournal(true, seed, game.getConfig(), opponent.getDifficulty()), true);
         }
+        Game game = new Game(config, random);
+        Opponent opponent = new Opponent(difficulty, config, random);
+        return new LoadedGame(game, opponent, openJournal(false, seed, config, difficulty), false);
+    }
 
-        public boolean hit(int row, int col) {
-            for (Cell cell : cells) {
-                if (cell.row == row && cell.col == col) {
-                    cell.isHit = true;
-                    if (isSunk()){
-                        markMissesAroundSunkShip(this);
-                    }
-                    return true;
-                }
-            }
-            return false;
+    private void showGame(LoadedGame loaded) {
+        if (isDestroyed()) {
+            loaded.opponent.close();
+            journal = loaded.journal;
+            closeJournal();
+            return;
+        }
+        game = loaded.game;
+        opponent = loaded.opponent;
+        journal = loaded.journal;
+        opponentDifficulty = opponent.getDifficulty();
+        config = game.getConfig();
+        pendingSnapshot = null;
+
+        playerBoard.setBoard(game.getPlayerBoard(), opponentDifficulty != Difficulty.MULTIPLAYER);
+        opponentBoard.setBoard(game.getOpponentBoard(), false);
+        playerBoard.setOnCellClickListener(this::onCellClicked);
+        opponentBoard.setOnCellClickListener(this::onCellClicked);
+
+        if (!loaded.restored) {
+            acceptingInput = true;
+        } else if (game.isOver()) {
+            statusText.setText(game.hasPlayerWon() ? "----> Игрок победил! <----" : "----> Оппонент победил! <----");
+            lockInput();
+        } else {
+            toggleTurn();
         }
+    }
 
-        public boolean isSunk() {
-            for (Cell cell : cells) {
-                if (!cell.isHit) {
-                    return false;
+    // Time from the tap in MainActivity (its "launchedAt" extra, or onCreate without one) to
+    // the first frame with the game on it, into the "startup" timer; see StartupBudgetTest.
+    private void reportStartupWhenDrawn() {
+        long launchedAt = getIntent().getLongExtra("launchedAt", SystemClock.uptimeMillis());
+        playerBoard.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (game == null) {
+                    return true;
                 }
+                playerBoard.getViewTreeObserver().removeOnPreDrawListener(this);
+                if (Metrics.isEnabled()) {
+                    GameMetrics.STARTUP.record((SystemClock.uptimeMillis() - launchedAt) * 1000);
+                }
+                reportFullyDrawn();
+                return true;
             }
-            return true;
-        }
-
-        public class Cell {
-            int row;
-            int col;
-            boolean isHit;
+        });
+    }
 
-            public Cell(int row, int col) {
-                this.row = row;
-                this.col = col;
-                this.isHit = false;
+    // The game to resume: the one this activity held before a rotation or process death, or
+    // the one saved to disk if MainActivity asked to continue. Null starts a new game.
+    private GameSnapshot restoreSnapshot(byte[] saved, boolean fromDisk, Random random) {
+        try {
+            if (saved != null) {
+                return GameSnapshot.read(ByteBuffer.wrap(saved), random);
+            }
+            if (fromDisk) {
+                ByteBuffer stored = snapshotStore.load();
+                return stored != null ? GameSnapshot.read(stored, random) : null;
             }
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Could not restore the saved game", e);
+            snapshotStore.delete();
         }
+        return null;
     }
 
-    private void generateShips(List<Ship> shipsList, String owner) {
-        Random random = new Random();
-        int[] shipSizes = {1, 1, 1, 1, 2, 2, 2, 3, 3, 4};
-
-        for (int size : shipSizes) {
-            boolean placed = false;
-            while (!placed) {
-                int row = random.nextInt(GRID_SIZE);
-                int col = random.nextInt(GRID_SIZE);
-                boolean isVertical = random.nextBoolean();
-
-                if (canPlaceShip(row, col, size, isVertical, shipsList)) {
-                    Ship ship = new Ship(size, row, col, isVertical, owner);
-                    shipsList.add(ship);
-                    placed = true;
-                }
+    private MoveJournal openJournal(boolean resume, long seed, GameConfig config, Difficulty difficulty) {
+        try {
+            FileChannel channel = snapshotStore.openJournal(resume);
+            if (channel != null) {
+                return resume ? MoveJournal.resume(channel) : MoveJournal.start(channel, seed, config, difficulty);
             }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not open the move journal", e);
         }
+        return null;
     }
 
-    private boolean canPlaceShip(int row, int col, int size, boolean isVertical, List<Ship> shipsList) {
-        if (isVertical && row + size > GRID_SIZE) return false;
-        if (!isVertical && col + size > GRID_SIZE) return false;
-
-        for (Ship ship : shipsList) {
-            for (Ship.Cell cell : ship.cells) {
-                for (int i = -1; i <= size; i++) {
-                    for (int j = -1; j <= 1; j++) {
-                        if (isVertical) {
-                            int checkRow = row + i;
-                            int checkCol = col + j;
-                            if (checkRow >= 0 && checkRow < GRID_SIZE && checkCol >= 0 && checkCol < GRID_SIZE) {
-                                if (checkRow == cell.row && checkCol == cell.col) {
-                                    return false;
-                                }
-                            }
-                        }
-                        else {
-                            int checkRow = row + j;
-                            int checkCol = col + i;
-                            if (checkRow >= 0 && checkRow < GRID_SIZE && checkCol >= 0 && checkCol < GRID_SIZE) {
-                                if (checkRow == cell.row && checkCol == cell.col) {
-                                    return false;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+    private void record(int row, int col) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(row * config.getWidth() + col);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write the move journal", e);
+            closeJournal();
         }
-        return true;
     }
 
-    private void fillGrid(GridLayout gridLayout, List<Ship> shipsList, boolean isPlayerBoard) {
-        gridLayout.removeAllViews();
-
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                Button button = createButton(row, col, gridLayout.getId());
-                gridLayout.addView(button);
-                button.setBackgroundColor(Color.GRAY);
-
-                if (isPlayerBoard && opponentDifficulty != Difficulty.MULTIPLAYER) {
-                    for (Ship ship : shipsList) {
-                        for (Ship.Cell cell : ship.cells) {
-                            if (cell.row == row && cell.col == col) {
-                                button.setBackgroundColor(Color.BLUE);
-                                break;
-                            }
-                        }
-                    }
-                } else {
-                    for (Ship ship : shipsList) {
-                        for (Ship.Cell cell : ship.cells) {
-                            if (cell.row == row && cell.col == col) {
-                                button.setBackgroundColor(Color.GRAY);
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
+    private void flushJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write the move journal", e);
+            closeJournal();
         }
     }
 
-    private Button createButton(int row, int col, int boardId) {
-        Button button = new Button(this);
-        int size = (int) (getResources().getDisplayMetrics().density * 25);
-        button.setMinWidth(size);
-        button.setMinHeight(size);
-
-        GridLayout.LayoutParams params = new GridLayout.LayoutParams();
-        params.width = size;
-        params.height = size;
-        params.rowSpec = GridLayout.spec(row);
-        params.columnSpec = GridLayout.spec(col);
-        params.setMargins(2, 2, 2, 2);
-        button.setLayoutParams(params);
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not close the move journal", e);
+        }
+        journal = null;
+    }
 
-        button.setOnClickListener(v -> onCellClicked(row, col, boardId));
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putByteArray(SNAPSHOT_KEY, game != null ? GameSnapshot.toBytes(game, opponent) : pendingSnapshot);
+    }
 
-        return button;
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (frameMonitor != null) {
+            frameMonitor.start();
+            mainHandler.post(refreshOverlay);
+        }
     }
 
-    private void onCellClicked(int row, int col, int boardId) {
-        if ((boardId == R.id.playerBoard && isPlayerTurn) || (boardId == R.id.opponentBoard && !isPlayerTurn)) {
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (frameMonitor != null) {
+            frameMonitor.stop();
+            mainHandler.removeCallbacks(refreshOverlay);
+            dumpMetrics();
+        }
+        if (game == null) {
             return;
         }
-
-        if (boardId == R.id.opponentBoard) {
-            GridLayout gridLayoutAI = findViewById(boardId);
-            Button button = (Button) gridLayoutAI.getChildAt(row * GRID_SIZE + col);
-            ColorDrawable background = (ColorDrawable) button.getBackground();
-            int buttonColor = background.getColor();
-
-            if (buttonColor == Color.RED || buttonColor == Color.BLACK) {
-                return;
-            }
-
-            boolean isHit = false;
-            for (Ship ship : opponentShips) {
-                if (ship.hit(row, col)) {
-                    isHit = true;
-                    break;
-                }
-            }
-
-            updateBoard(boardId, row, col, isHit);
-
-            if (areAllShipsDestroyed(opponentShips)) {
-                statusText.setText("----> Игрок победил! <----");
-                disableAllButtons();
-            } else {
-                toggleTurn();
-            }
-
-        } else if (boardId == R.id.playerBoard) {
-            GridLayout gridLayout = findViewById(boardId);
-            Button button = (Button) gridLayout.getChildAt(row * GRID_SIZE + col);
-            ColorDrawable background = (ColorDrawable) button.getBackground();
-            int buttonColor = background.getColor();
-
-            if (buttonColor == Color.RED || buttonColor == Color.BLACK) {
-                return;
-            }
-
-            boolean isHit = false;
-            for (Ship ship : playerShips) {
-                if (ship.hit(row, col)) {
-                    isHit = true;
-                    break;
-                }
-            }
-
-            updateBoard(boardId, row, col, isHit);
-
-            if (areAllShipsDestroyed(playerShips)) {
-                statusText.setText("----> Оппонент победил! <----");
-                disableAllButtons();
-            } else {
-                toggleTurn();
-            }
+        flushJournal();
+        if (game.isOver()) {
+            snapshotStore.delete();
+            return;
+        }
+        try {
+            snapshotStore.save(GameSnapshot.toBytes(game, opponent));
+        } catch (IOException e) {
+            Log.w(TAG, "Could not save the game", e);
         }
     }
 
+    // Pull with: adb shell run-as com.example.battleshipgame cat files/metrics.json
+    private void dumpMetrics() {
+        try (Writer out = new FileWriter(new File(getFilesDir(), "metrics.json"))) {
+            Metrics.writeJson(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write metrics", e);
+        }
+    }
 
-
-    private void updateBoard(int boardId, int row, int col, boolean isHit) {
-        GridLayout gridLayout = findViewById(boardId);
-        Button button = (Button) gridLayout.getChildAt(row * GRID_SIZE + col);
-
-        if (boardId == R.id.playerBoard) {
-            if (isHit) {
-                button.setBackgroundColor(Color.RED);
-                opponentHits[row][col] = AttackResult.HIT;
-            } else {
-                button.setBackgroundColor(Color.BLACK);
-                opponentHits[row][col] = AttackResult.MISS;
-            }
-        } else if (boardId == R.id.opponentBoard) {
-            if (isHit) {
-                button.setBackgroundColor(Color.RED);
-                playerHits[row][col] = AttackResult.HIT;
-            } else {
-                button.setBackgroundColor(Color.BLACK);
-                playerHits[row][col] = AttackResult.MISS;
+    // Board size, fleet and adjacency rule come from the launching Intent; missing extras fall
+    // back to the classic rules, and so do an unknown adjacency rule or rules GameConfig refuses.
+    private GameConfig readConfig() {
+        GameConfig classic = GameConfig.CLASSIC;
+        int width = getIntent().getIntExtra("width", classic.getWidth());
+        int height = getIntent().getIntExtra("height", classic.getHeight());
+        int[] fleet = getIntent().getIntArrayExtra("fleet");
+        String adjacency = getIntent().getStringExtra("adjacency");
+        AdjacencyRule rule = classic.getAdjacency();
+        if (adjacency != null) {
+            try {
+                rule = AdjacencyRule.valueOf(adjacency);
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Unknown adjacency rule " + adjacency + ", playing " + rule);
             }
         }
+        try {
+            return new GameConfig(width, height, fleet != null ? fleet : classic.getFleet(), rule);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Unsupported rules, playing the classic ones", e);
+            return classic;
+        }
     }
 
-    private boolean areAllShipsDestroyed(List<Ship> ships) {
-        for (Ship ship : ships) {
-            if (!ship.isSunk()) {
-                return false;
-            }
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        turnScheduler.shutdown();
+        if (opponent != null) {
+            opponent.close();
         }
-        return true;
+        closeJournal();
+        mainHandler.removeCallbacksAndMessages(null);
     }
 
-    private int lastHitRow = -1;
-    private int lastHitCol = -1;
+    private void onCellClicked(BoardView boardView, int row, int col) {
+        if (!acceptingInput) {
+            return;
+        }
+        if ((boardView == playerBoard && game.isPlayerTurn()) || (boardView == opponentBoard && !game.isPlayerTurn())) {
+            return;
+        }
+        if (game.getDefendingBoard().isShot(row, col)) {
+            return;
+        }
 
-    private void opponentTurn() {
-        Random random = new Random();
-        GridLayout opponentBoard = findViewById(R.id.opponentBoard);
-        final int[] row = {-1};
-        final int[] col = {-1};
-
-        switch (opponentDifficulty) {
-            case NORMAL:
-                new Handler().postDelayed(() -> {
-                    if (lastHitRow != -1 && lastHitCol != -1) {
-                        int[] directions = {-1, 1};
-
-                        for (int dir : directions) {
-                            int newRow = lastHitRow + dir;
-                            int newCol = lastHitCol;
-
-                            if (isValidMove(newRow, newCol)) {
-                                row[0] = newRow;
-                                col[0] = newCol;
-                                break;
-                            }
-
-                            newRow = lastHitRow;
-                            newCol = lastHitCol + dir;
-
-                            if (isValidMove(newRow, newCol)) {
-                                row[0] = newRow;
-                                col[0] = newCol;
-                                break;
-                            }
-                        }
-                    }
-
-                    if (row[0] == -1 || col[0] == -1) {
-                        do {
-                            row[0] = random.nextInt(GRID_SIZE);
-                            col[0] = random.nextInt(GRID_SIZE);
-                        } while (opponentHits[row[0]][col[0]] != AttackResult.UNKNOWN);
-                    }
-                    attackCell(row[0], col[0]);
-                    for (int i = 0; i < opponentBoard.getChildCount(); i++) {
-                        Button button = (Button) opponentBoard.getChildAt(i);
-                        button.setEnabled(true);
-                    }
-                }, 1000);
-                break;
-            case MULTIPLAYER:
-                toggleTurn();
-                break;
-            default:
-                new Handler().postDelayed(() -> {
-                    do {
-                        row[0] = random.nextInt(GRID_SIZE);
-                        col[0] = random.nextInt(GRID_SIZE);
-                    } while (opponentHits[row[0]][col[0]] != AttackResult.UNKNOWN);
-                    attackCell(row[0], col[0]);
-                    for (int i = 0; i < opponentBoard.getChildCount(); i++) {
-                        Button button = (Button) opponentBoard.getChildAt(i);
-                        button.setEnabled(true);
-                    }
-                }, 1000);
-                break;
+        long startedAt = GameMetrics.CELL_CLICKED.start();
+        game.fire(row, col);
+        record(row, col);
+        boardView.applyChanges();
+
+        if (game.isOver()) {
+            finishGame();
+        } else {
+            toggleTurn();
         }
+        GameMetrics.CELL_CLICKED.stop(startedAt);
     }
 
+    // The board is not touched on the main thread while input is locked, so the opponent can
+    // read it from the scheduler's thread.
+    private void opponentTurn() {
+        turnScheduler.schedule(this::nextOpponentShot, this::randomUnshotCell, this::playOpponentMove);
+    }
 
-    private void attackCell(int row, int col) {
-        boolean isHit = false;
+    private int nextOpponentShot() {
+        long startedAt = GameMetrics.OPPONENT_TURN.start();
+        int cell = opponent.nextShot(game.getPlayerBoard());
+        GameMetrics.OPPONENT_TURN.stop(startedAt);
+        return cell;
+    }
 
-        for (Ship ship : playerShips) {
-            if (ship.hit(row, col)) {
-                isHit = true;
-                break;
+    // A legal move for when the opponent's strategy fails: any cell not shot yet, uniformly.
+    private int randomUnshotCell() {
+        Board board = game.getPlayerBoard();
+        Random random = ThreadLocalRandom.current();
+        int chosen = -1;
+        int seen = 0;
+        for (int row = 0; row < board.getHeight(); row++) {
+            for (int col = 0; col < board.getWidth(); col++) {
+                if (!board.isShot(row, col) && random.nextInt(++seen) == 0) {
+                    chosen = board.cell(row, col);
+                }
             }
         }
+        return chosen;
+    }
 
-        if (isHit) {
-            opponentHits[row][col] = AttackResult.HIT;
-        } else {
-            opponentHits[row][col] = AttackResult.MISS;
+    private void playOpponentMove(int cell) {
+        if (isDestroyed()) {
+            return;
         }
+        attackCell(cell / config.getWidth(), cell % config.getWidth());
+    }
 
-        updateBoard(R.id.playerBoard, row, col, isHit);
-
-        if (isHit) {
-            lastHitRow = row;
-            lastHitCol = col;
+    private void attackCell(int row, int col) {
+        long startedAt = GameMetrics.ATTACK_CELL.start();
+        ShotResult result = game.fire(row, col);
+        if (result != ShotResult.REPEAT) {
+            record(row, col);
         }
+        opponent.onShot(row, col, result);
+        playerBoard.applyChanges();
 
-        if (areAllShipsDestroyed(playerShips)) {
-            statusText.setText("----> Оппонент победил! <----");
-            GridLayout playerBoard = findViewById(R.id.playerBoard);
-            GridLayout opponentBoard = findViewById(R.id.opponentBoard);
-            int childCount = playerBoard.getChildCount();
-            for (int i = 0; i < childCount; i++) {
-                Button button1 = (Button) playerBoard.getChildAt(i);
-                button1.setEnabled(false);
-                Button button2 = (Button) opponentBoard.getChildAt(i);
-                button2.setEnabled(false);
-            }
+        if (game.isOver()) {
+            finishGame();
         } else {
             toggleTurn();
         }
+        GameMetrics.ATTACK_CELL.stop(startedAt);
     }
 
-
-    private boolean isValidMove(int row, int col) {
-        if (row < 0 || row >= GRID_SIZE || col < 0 || col >= GRID_SIZE) {
-            return false;
+    // Ends the game on screen and hands it to the stats database; the journal holds every shot.
+    private void finishGame() {
+        statusText.setText(game.hasPlayerWon() ? "----> Игрок победил! <----" : "----> Оппонент победил! <----");
+        lockInput();
+        flushJournal();
+        if (journal != null) {
+            statsStore.recordGame(snapshotStore, game.hasPlayerWon(), SystemClock.elapsedRealtime() - playStartedAt);
         }
-        if (opponentHits[row][col] != AttackResult.UNKNOWN) {
-            return false;
-        }
-        return true;
     }
 
     private void toggleTurn() {
-        isPlayerTurn = !isPlayerTurn;
         updateTurnText();
 
-        GridLayout playerBoard = findViewById(R.id.playerBoard);
-        GridLayout opponentBoard = findViewById(R.id.opponentBoard);
-
-        if (opponentDifficulty != Difficulty.MULTIPLAYER) {
-            for (int i = 0; i < playerBoard.getChildCount(); i++) {
-                Button button = (Button) playerBoard.getChildAt(i);
-                button.setEnabled(false);
-            }
-        }
-        for (int i = 0; i < opponentBoard.getChildCount(); i++) {
-            Button button = (Button) opponentBoard.getChildAt(i);
-            button.setEnabled(isPlayerTurn);
-        }
-
-        if (!isPlayerTurn && opponentDifficulty != Difficulty.MULTIPLAYER) {
+        boolean isOpponentsMove = !game.isPlayerTurn() && opponentDifficulty != Difficulty.MULTIPLAYER;
+        acceptingInput = !isOpponentsMove;
+        if (isOpponentsMove) {
             opponentTurn();
         }
     }
 
-
-
     private void updateTurnText() {
-        if (isPlayerTurn) {
+        if (game.isPlayerTurn()) {
             statusText.setText("Игрок атакует Оппонента");
         } else {
             statusText.setText("Оппонент атакует Игрока");
         }
     }
-    private void markMissesAroundSunkShip(Ship sunkShip) {
-        for (Ship.Cell cell : sunkShip.cells) {
-            for (int i = -1; i <= 1; i++) {
-                for (int j = -1; j <= 1; j++) {
-                    int row = cell.row + i;
-                    int col = cell.col + j;
-
-                    if (row >= 0 && row < GRID_SIZE && col >= 0 && col < GRID_SIZE) {
-                        if (isCellPartOfShip(row, col, sunkShip)) continue;
-                        if (Objects.equals(sunkShip.owner, "player")){
-                            if (opponentHits[row][col] != AttackResult.HIT) {
-                                opponentHits[row][col] = AttackResult.MISS;
-                                updateBoard(R.id.playerBoard, row, col, false);
-                            }
-                        }
-                        else {
-                            playerHits[row][col] = AttackResult.MISS;
-                            updateBoard(R.id.opponentBoard, row, col, false);
-                        }
-                    }
-                }
-            }
-        }
-    }
 
-    private boolean isCellPartOfShip(int row, int col, Ship ship) {
-        for (Ship.Cell cell : ship.cells) {
-            if (cell.row == row && cell.col == col) {
-                return true;
-            }
-        }
-        return false;
+    private void lockInput() {
+        acceptingInput = false;
     }
 
-    private void disableAllButtons() {
-        GridLayout playerBoard = findViewById(R.id.playerBoard);
-        GridLayout opponentBoard = findViewById(R.id.opponentBoard);
-
-        for (int i = 0; i < playerBoard.getChildCount(); i++) {
-            Button button1 = (Button) playerBoard.getChildAt(i);
-            button1.setEnabled(false);
-        }
-        for (int i = 0; i < opponentBoard.getChildCount(); i++) {
-            Button button2 = (Button) opponentBoard.getChildAt(i);
-            button2.setEnabled(false);
+    // What the loader hands to the main thread.
+    private static final class LoadedGame {
+        final Game game;
+        final Opponent opponent;
+        final MoveJournal journal;
+        final boolean restored;
+
+        LoadedGame(Game game, Opponent opponent, MoveJournal journal, boolean restored) {
+            this.game = game;
+            this.opponent = opponent;
+            this.journal = journal;
+            this.restored = restored;
         }
     }
-
 }
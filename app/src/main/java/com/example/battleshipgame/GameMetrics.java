@@ -0,0 +1,22 @@
+package com.example.battleshipgame;
+
+import com.example.battleshipgame.engine.metrics.Counter;
+import com.example.battleshipgame.engine.metrics.Metrics;
+import com.example.battleshipgame.engine.metrics.Timer;
+
+// The app's instrumented paths. Enabled on debuggable builds only; see GameActivity.
+final class GameMetrics {
+    static final Timer CELL_CLICKED = Metrics.timer("onCellClicked");
+    // The opponent choosing its shot, on whichever thread it runs.
+    static final Timer OPPONENT_TURN = Metrics.timer("opponentTurn");
+    static final Timer ATTACK_CELL = Metrics.timer("attackCell");
+    static final Timer APPLY_CHANGES = Metrics.timer("applyChanges");
+    static final Timer DRAW = Metrics.timer("onDraw");
+    static final Timer FRAME = Metrics.timer("frame");
+    // From the tap that starts a game to the first frame showing it.
+    static final Timer STARTUP = Metrics.timer("startup");
+    static final Counter JANK = Metrics.counter("jankFrames");
+
+    private GameMetrics() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.battleshipgame;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// One finished game. The columns the stats screen filters and groups by are indexed; the shots
+// themselves are kept only as the game's MoveJournal, which new Replay(ByteBuffer.wrap(moves))
+// turns back into the full game.
+@Entity(tableName = "games", indices = {
+        @Index("difficulty"), @Index("playerWon"), @Index("shots"), @Index("durationMillis")})
+public class GameRecord {
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+    // Difficulty name.
+    @NonNull
+    public String difficulty = "";
+    public boolean playerWon;
+    // Shots fired by the player.
+    public int shots;
+    public long durationMillis;
+    public long finishedAt;
+    public int width;
+    public int height;
+    @NonNull
+    public byte[] moves = new byte[0];
+}
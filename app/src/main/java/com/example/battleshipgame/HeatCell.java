@@ -0,0 +1,14 @@
+package com.example.battleshipgame;
+
+import androidx.room.Entity;
+
+// Running totals of the player's shots at one cell over every game on boards of one size.
+// Updated in place when a game is saved, so the heatmap never rescans the games table.
+@Entity(tableName = "heat", primaryKeys = {"width", "height", "cell"})
+public class HeatCell {
+    public int width;
+    public int height;
+    public int cell;
+    public long shots;
+    public long hits;
+}
@@ -0,0 +1,59 @@
+package com.example.battleshipgame;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import java.util.List;
+
+// A board-shaped heatmap of how often the player shot each cell: white for never, full red for
+// the most-shot cell. Square cells, scaled to the width it is given.
+public class HeatMapView extends View {
+    private final Paint paint = new Paint();
+    private int width = 10;
+    private int height = 10;
+    private long[] shots = new long[100];
+    private long maxShots;
+
+    public HeatMapView(Context context) {
+        this(context, null);
+    }
+
+    public HeatMapView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public void setHeat(int width, int height, List<HeatCell> cells) {
+        this.width = width;
+        this.height = height;
+        this.shots = new long[width * height];
+        maxShots = 0;
+        for (HeatCell cell : cells) {
+            shots[cell.cell] = cell.shots;
+            maxShots = Math.max(maxShots, cell.shots);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int side = MeasureSpec.getSize(widthMeasureSpec) / width;
+        setMeasuredDimension(side * width, side * height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        int side = getWidth() / width;
+        for (int cell = 0; cell < shots.length; cell++) {
+            int level = maxShots == 0 ? 0 : (int) (255 * shots[cell] / maxShots);
+            paint.setColor(Color.rgb(255, 255 - level, 255 - level));
+            int left = cell % width * side;
+            int top = cell / width * side;
+            canvas.drawRect(left, top, left + side - 1, top + side - 1, paint);
+        }
+    }
+}
@@ -2,13 +2,24 @@ package com.example.battleshipgame;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.view.View;
 import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.EditText;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.battleshipgame.engine.Fleet;
+import com.example.battleshipgame.engine.GameConfig;
+
 public class MainActivity extends AppCompatActivity {
 
+    private static final int LARGE_BOARD_SIZE = 100;
+    private CheckBox largeBoardCheckBox;
+    private Button continueButton;
+    private SnapshotStore snapshotStore;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -16,27 +27,110 @@ public class MainActivity extends AppCompatActivity {
 
         Button easyOpponentModeButton = findViewById(R.id.easy_button);
         Button normalOpponentModeButton = findViewById(R.id.normal_button);
+        Button hardOpponentModeButton = findViewById(R.id.hard_button);
+        Button expertOpponentModeButton = findViewById(R.id.expert_button);
         Button multiplayerModeButton = findViewById(R.id.multiplayer_button);
+        Button hostButton = findViewById(R.id.host_button);
+        Button joinButton = findViewById(R.id.join_button);
+        Button statsButton = findViewById(R.id.stats_button);
+        EditText hostInput = findViewById(R.id.host_input);
+        largeBoardCheckBox = findViewById(R.id.large_board_checkbox);
+        continueButton = findViewById(R.id.continue_button);
+        snapshotStore = new SnapshotStore(this);
+
+        continueButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                startActivity(new Intent(MainActivity.this, GameActivity.class)
+                        .putExtra("resume", true)
+                        .putExtra("launchedAt", SystemClock.uptimeMillis()));
+            }
+        });
 
         easyOpponentModeButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                startActivity(new Intent(MainActivity.this, GameActivity.class).putExtra("mode", "easyOpponent"));
+                startGame("easyOpponent");
             }
         });
 
         normalOpponentModeButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                startActivity(new Intent(MainActivity.this, GameActivity.class).putExtra("mode", "normalOpponent"));
+                startGame("normalOpponent");
+            }
+        });
+
+        hardOpponentModeButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                startGame("hardOpponent");
+            }
+        });
+
+        expertOpponentModeButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                startGame("expertOpponent");
             }
         });
 
         multiplayerModeButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                startActivity(new Intent(MainActivity.this, GameActivity.class).putExtra("mode", "multiplayer"));
+                startGame("multiplayer");
             }
         });
+
+        hostButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                startActivity(new Intent(MainActivity.this, NetworkGameActivity.class));
+            }
+        });
+
+        joinButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                String host = hostInput.getText().toString().trim();
+                if (!host.isEmpty()) {
+                    startActivity(new Intent(MainActivity.this, NetworkGameActivity.class).putExtra("host", host));
+                }
+            }
+        });
+
+        statsButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                startActivity(new Intent(MainActivity.this, StatsActivity.class));
+            }
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        continueButton.setVisibility(snapshotStore.exists() ? View.VISIBLE : View.GONE);
+    }
+
+    private void startGame(String mode) {
+        GameConfig config = largeBoardCheckBox.isChecked() ? largeBoard() : GameConfig.CLASSIC;
+        startActivity(new Intent(this, GameActivity.class)
+                .putExtra("mode", mode)
+                .putExtra("width", config.getWidth())
+                .putExtra("height", config.getHeight())
+                .putExtra("fleet", config.getFleet())
+                .putExtra("adjacency", config.getAdjacency().name())
+                .putExtra("launchedAt", SystemClock.uptimeMillis()));
+    }
+
+    // The classic fleet once for every 10x10 of area, so the density of ships stays the same.
+    private static GameConfig largeBoard() {
+        int copies = LARGE_BOARD_SIZE * LARGE_BOARD_SIZE / 100;
+        int[] fleet = new int[Fleet.SHIP_SIZES.length * copies];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = Fleet.SHIP_SIZES[i % Fleet.SHIP_SIZES.length];
+        }
+        return new GameConfig(LARGE_BOARD_SIZE, LARGE_BOARD_SIZE, fleet, GameConfig.CLASSIC.getAdjacency());
     }
 }
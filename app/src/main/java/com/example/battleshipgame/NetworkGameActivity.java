@@ -0,0 +1,161 @@
+package com.example.battleshipgame;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.ShotResult;
+import com.example.battleshipgame.engine.net.MatchServer;
+import com.example.battleshipgame.engine.net.NetClient;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Two-device game on the local network. The host runs the MatchServer in-process and joins it
+// over loopback; the other device connects to the host's address. Each device lays out and keeps
+// its own fleet and the server only relays committed answers, so hosting gives no look at the
+// other side's ships.
+public class NetworkGameActivity extends AppCompatActivity implements NetClient.Listener {
+
+    static final int PORT = 47100;
+    private static final String TAG = "NetworkGameActivity";
+
+    private TextView statusText;
+    private BoardView playerBoard;
+    private BoardView opponentBoard;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService connectExecutor = Executors.newSingleThreadExecutor();
+    private volatile MatchServer server;
+    private volatile NetClient client;
+    private boolean isOver;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_game);
+        playerBoard = findViewById(R.id.playerBoard);
+        opponentBoard = findViewById(R.id.opponentBoard);
+        statusText = findViewById(R.id.statusText);
+        opponentBoard.setOnCellClickListener(this::onCellClicked);
+
+        String host = getIntent().getStringExtra("host");
+        statusText.setText(host == null ? "Ожидание соперника: " + localAddress() : "Подключение к " + host);
+        // Sockets may not be opened on the main thread.
+        connectExecutor.execute(() -> connect(host));
+    }
+
+    private void connect(String host) {
+        try {
+            InetSocketAddress address;
+            if (host == null) {
+                server = new MatchServer(new InetSocketAddress(PORT), GameConfig.CLASSIC, 0);
+                new Thread(server, "match-server").start();
+                address = new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT);
+            } else {
+                address = new InetSocketAddress(host, PORT);
+            }
+            client = NetClient.connect(address, mainHandler::post, this);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not start the network game", e);
+            mainHandler.post(() -> statusText.setText("Не удалось подключиться"));
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        connectExecutor.shutdownNow();
+        if (client != null) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private void onCellClicked(BoardView boardView, int row, int col) {
+        if (isOver || client == null || !client.isMyTurn() || client.getEnemyBoard().isShot(row, col)) {
+            return;
+        }
+        client.shoot(row, col);
+        statusText.setText("Оппонент атакует Игрока");
+    }
+
+    @Override
+    public void onReady(NetClient client) {
+        playerBoard.setBoard(client.getOwnBoard(), true);
+        opponentBoard.setBoard(client.getEnemyBoard(), false);
+        updateTurnText();
+    }
+
+    @Override
+    public void onShotResult(int row, int col, ShotResult result) {
+        opponentBoard.applyChanges();
+        updateTurnText();
+    }
+
+    @Override
+    public void onIncomingShot(int row, int col, ShotResult result) {
+        playerBoard.applyChanges();
+        updateTurnText();
+    }
+
+    @Override
+    public void onGameOver(boolean won) {
+        isOver = true;
+        String text = won ? "----> Игрок победил! <----" : "----> Оппонент победил! <----";
+        if (!client.isEnemyFleetVerified()) {
+            text += "\nОтветы соперника не сошлись с его флотом";
+        }
+        statusText.setText(text);
+    }
+
+    @Override
+    public void onDisconnected(IOException cause) {
+        if (!isOver && !isDestroyed()) {
+            statusText.setText("Соединение потеряно");
+        }
+    }
+
+    @Override
+    public void onProtocolError(String message) {
+        Log.w(TAG, "Protocol error: " + message);
+        isOver = true;
+        statusText.setText("Сервер прислал неверные данные, игра прервана");
+    }
+
+    private void updateTurnText() {
+        if (isOver) {
+            return;
+        }
+        statusText.setText(client.isMyTurn() ? "Игрок атакует Оппонента" : "Оппонент атакует Игрока");
+    }
+
+    // The address the other device should connect to.
+    private static String localAddress() {
+        try {
+            for (NetworkInterface network : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                for (InetAddress address : Collections.list(network.getInetAddresses())) {
+                    if (!address.isLoopbackAddress() && address instanceof Inet4Address) {
+                        return address.getHostAddress();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not list network interfaces", e);
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.battleshipgame;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// The unfinished game and the move journal of the latest game in app-private storage.
+// Snapshot writes go to a temporary file that replaces the old one in a single rename, so a kill
+// mid-write leaves the previous snapshot intact. The journal is only ever appended to.
+final class SnapshotStore {
+    private static final String FILE_NAME = "game.snapshot";
+    private static final String JOURNAL_NAME = "game.journal";
+
+    private final File file;
+    private final File temp;
+    private final File journal;
+
+    SnapshotStore(Context context) {
+        this.file = new File(context.getFilesDir(), FILE_NAME);
+        this.temp = new File(context.getFilesDir(), FILE_NAME + ".tmp");
+        this.journal = new File(context.getFilesDir(), JOURNAL_NAME);
+    }
+
+    boolean exists() {
+        return file.exists();
+    }
+
+    void save(byte[] snapshot) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            FileChannel channel = out.getChannel();
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    // The saved snapshot, or null if there is none.
+    ByteBuffer load() throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // The file is a few dozen bytes; this normally loops once.
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    // A new journal replaces the previous game's; a resumed game appends to its own, or gets
+    // null if that journal is gone.
+    FileChannel openJournal(boolean resume) throws IOException {
+        if (resume && !journal.exists()) {
+            return null;
+        }
+        return new FileOutputStream(journal, resume).getChannel();
+    }
+
+    // The whole journal of the latest game, or null if there is none.
+    byte[] readJournal() throws IOException {
+        if (!journal.exists()) {
+            return null;
+        }
+        try (FileInputStream in = new FileInputStream(journal)) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // A classic game's journal is about a hundred bytes.
+            }
+            return buffer.array();
+        }
+    }
+
+    void delete() {
+        file.delete();
+    }
+}
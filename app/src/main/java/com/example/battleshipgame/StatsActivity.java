@@ -0,0 +1,60 @@
+package com.example.battleshipgame;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.battleshipgame.engine.GameConfig;
+
+import java.util.List;
+import java.util.Locale;
+
+// Win rate, average shots and game length per difficulty, and where the player shoots on the
+// classic board. Both come from indexed aggregates, so the screen fills in at once however many
+// games are stored.
+public class StatsActivity extends AppCompatActivity {
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private TextView summaryText;
+    private HeatMapView heatMap;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_stats);
+        summaryText = findViewById(R.id.summaryText);
+        heatMap = findViewById(R.id.heatMap);
+
+        StatsStore stats = new StatsStore(this);
+        stats.loadSummaries(mainHandler::post, this::showSummaries);
+        int width = GameConfig.CLASSIC.getWidth();
+        int height = GameConfig.CLASSIC.getHeight();
+        stats.loadHeat(width, height, mainHandler::post, cells -> heatMap.setHeat(width, height, cells));
+    }
+
+    private void showSummaries(List<DifficultySummary> summaries) {
+        if (isDestroyed()) {
+            return;
+        }
+        if (summaries.isEmpty()) {
+            summaryText.setText("Сыгранных игр пока нет");
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (DifficultySummary summary : summaries) {
+            text.append(String.format(Locale.getDefault(), "%s: %d игр, побед %.0f%%, в среднем %.1f выстрелов, %.0f с%n",
+                    summary.difficulty, summary.games, 100.0 * summary.wins / summary.games,
+                    summary.averageShots, summary.averageDurationMillis / 1000));
+        }
+        summaryText.setText(text);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.battleshipgame;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class StatsDao {
+
+    @Insert
+    public abstract long insert(GameRecord record);
+
+    @Query("INSERT OR IGNORE INTO heat (width, height, cell, shots, hits) VALUES (:width, :height, :cell, 0, 0)")
+    public abstract void addHeatCell(int width, int height, int cell);
+
+    @Query("UPDATE heat SET shots = shots + 1, hits = hits + :hit WHERE width = :width AND height = :height AND cell = :cell")
+    public abstract void addShot(int width, int height, int cell, int hit);
+
+    // The game and its heatmap increments in one transaction: a single disk sync per game.
+    @Transaction
+    public void save(GameRecord record, int[] shotCells, boolean[] hits) {
+        insert(record);
+        for (int i = 0; i < shotCells.length; i++) {
+            addHeatCell(record.width, record.height, shotCells[i]);
+            addShot(record.width, record.height, shotCells[i], hits[i] ? 1 : 0);
+        }
+    }
+
+    @Query("SELECT difficulty, COUNT(*) AS games, SUM(playerWon) AS wins, AVG(shots) AS averageShots,"
+            + " AVG(durationMillis) AS averageDurationMillis FROM games GROUP BY difficulty")
+    public abstract List<DifficultySummary> summaries();
+
+    @Query("SELECT * FROM heat WHERE width = :width AND height = :height")
+    public abstract List<HeatCell> heat(int width, int height);
+}
@@ -0,0 +1,26 @@
+package com.example.battleshipgame;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+@Database(entities = {GameRecord.class, HeatCell.class}, version = 1, exportSchema = false)
+public abstract class StatsDatabase extends RoomDatabase {
+    private static volatile StatsDatabase instance;
+
+    public abstract StatsDao stats();
+
+    static StatsDatabase get(Context context) {
+        if (instance == null) {
+            synchronized (StatsDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), StatsDatabase.class, "stats.db")
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.battleshipgame;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.battleshipgame.engine.AttackResult;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Saves finished games and reads the stats back, all on one background thread so the UI never
+// waits on the database and writes never interleave. A game is written once, when it ends.
+final class StatsStore {
+    private static final String TAG = "StatsStore";
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private final StatsDao dao;
+
+    StatsStore(Context context) {
+        this.dao = StatsDatabase.get(context).stats();
+    }
+
+    // The journal holds the whole game; it is read and the player's shots and their results are
+    // worked out from it here, off the main thread.
+    void recordGame(SnapshotStore snapshots, boolean playerWon, long durationMillis) {
+        WORKER.execute(() -> {
+            try {
+                byte[] journal = snapshots.readJournal();
+                if (journal == null) {
+                    return;
+                }
+                Replay replay = new Replay(ByteBuffer.wrap(journal));
+                Board target = replay.seek(replay.getMoveCount()).getOpponentBoard();
+                // Turns alternate after every accepted shot and the player starts, so the
+                // player's shots are the even moves.
+                int[] cells = new int[(replay.getMoveCount() + 1) / 2];
+                boolean[] hits = new boolean[cells.length];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = replay.getMove(2 * i);
+                    hits[i] = target.getAttackResult(cells[i] / target.getWidth(), cells[i] % target.getWidth())
+                            == AttackResult.HIT;
+                }
+
+                GameRecord record = new GameRecord();
+                record.difficulty = replay.getDifficulty().name();
+                record.playerWon = playerWon;
+                record.shots = cells.length;
+                record.durationMillis = durationMillis;
+                record.finishedAt = System.currentTimeMillis();
+                record.width = replay.getConfig().getWidth();
+                record.height = replay.getConfig().getHeight();
+                record.moves = journal;
+                dao.save(record, cells, hits);
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Could not record the game", e);
+            }
+        });
+    }
+
+    void loadSummaries(Executor callbackExecutor, Callback<List<DifficultySummary>> callback) {
+        WORKER.execute(() -> {
+            List<DifficultySummary> summaries = dao.summaries();
+            callbackExecutor.execute(() -> callback.onResult(summaries));
+        });
+    }
+
+    void loadHeat(int width, int height, Executor callbackExecutor, Callback<List<HeatCell>> callback) {
+        WORKER.execute(() -> {
+            List<HeatCell> heat = dao.heat(width, height);
+            callbackExecutor.execute(() -> callback.onResult(heat));
+        });
+    }
+}
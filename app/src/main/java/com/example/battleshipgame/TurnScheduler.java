@@ -0,0 +1,63 @@
+package com.example.battleshipgame;
+
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+// Runs the opponent's turns: each move is computed on a background thread as soon as the turn
+// starts and handed to the main thread once the presentation delay has passed since then, so a
+// slow search overlaps the delay instead of adding to it. With a zero delay a move is played as
+// soon as it is ready. shutdown() drops any move still in flight, so a destroyed activity is
+// neither called back nor kept alive by a pending callback. A move that throws is logged and
+// replaced by the fallback's, so a broken strategy costs the opponent a good shot instead of
+// leaving the game waiting for it forever.
+final class TurnScheduler {
+    private static final String TAG = "TurnScheduler";
+
+    private final Handler mainHandler;
+    private final long delayMillis;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "opponent-turn");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Bumped by shutdown(); a move computed under an older generation is discarded.
+    private volatile int generation;
+
+    TurnScheduler(Handler mainHandler, long delayMillis) {
+        this.mainHandler = mainHandler;
+        this.delayMillis = delayMillis;
+    }
+
+    // Computes a move with compute off the main thread and passes it to present on it. If
+    // compute throws, fallback supplies the move instead.
+    void schedule(IntSupplier compute, IntSupplier fallback, IntConsumer present) {
+        int scheduled = generation;
+        long startedAt = SystemClock.uptimeMillis();
+        executor.execute(() -> {
+            int move;
+            try {
+                move = compute.getAsInt();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not compute the opponent's move, playing the fallback", e);
+                move = fallback.getAsInt();
+            }
+            if (scheduled != generation) return;
+            long remaining = Math.max(0, delayMillis - (SystemClock.uptimeMillis() - startedAt));
+            mainHandler.postAtTime(() -> {
+                if (scheduled == generation) present.accept(move);
+            }, this, SystemClock.uptimeMillis() + remaining);
+        });
+    }
+
+    void shutdown() {
+        generation++;
+        mainHandler.removeCallbacksAndMessages(this);
+        executor.shutdownNow();
+    }
+}
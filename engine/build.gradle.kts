@@ -0,0 +1,52 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// ./gradlew :engine:jmh runs every benchmark in src/jmh with the GC profiler attached;
+// pass -PjmhIncludes=<regex> to run a subset.
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    if (project.hasProperty("jmhIncludes")) {
+        includes.add(project.property("jmhIncludes").toString())
+    }
+}
+
+// ./gradlew :engine:simulate --args="--games 100000 --first normal --second hard --out games.csv"
+tasks.register<JavaExec>("simulate") {
+    group = "application"
+    description = "Plays bot-vs-bot games and reports aggregated statistics."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.battleshipgame.engine.sim.Simulator")
+}
+
+// ./gradlew :engine:openingBook regenerates the opening book the app ships as an asset.
+tasks.register<JavaExec>("openingBook") {
+    group = "application"
+    description = "Precomputes the AI's opening lines into app/src/main/assets/openings.bin."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.battleshipgame.engine.sim.OpeningBookGenerator")
+    maxHeapSize = "2g"
+    args("--out", rootProject.file("app/src/main/assets/openings.bin").path)
+}
+
+// ./gradlew :engine:tournament --args="--games 2000 --strategies easy,normal,hard"
+tasks.register<JavaExec>("tournament") {
+    group = "application"
+    description = "Plays every registered AI strategy against every other and reports Elo ratings and move cost."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.battleshipgame.engine.sim.Tournament")
+}
@@ -0,0 +1,52 @@
+package com.example.battleshipgame.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommitmentBenchmark {
+    private final Random salts = new Random(1);
+    private Board board;
+    private FleetCommitment commitment;
+    private byte[] hash;
+    private byte[] opening;
+    private final ShotLog log = new ShotLog();
+
+    @Setup
+    public void setUp() {
+        board = new Board();
+        Fleet.generateShips(board, new Random(2));
+        commitment = FleetCommitment.of(board, salts);
+        hash = commitment.getHash();
+        opening = commitment.getOpening();
+        Board target = new Board();
+        for (Ship ship : board.getShips()) {
+            target.addShip(ship);
+        }
+        for (int cell = 0; cell < 100; cell++) {
+            ShotResult result = target.shoot(cell / 10, cell % 10);
+            if (result != ShotResult.REPEAT) log.record(cell, result);
+        }
+    }
+
+    @Benchmark
+    public FleetCommitment commit() {
+        return FleetCommitment.of(board, salts);
+    }
+
+    // Checks a full game's worth of answers, the worst case for one side.
+    @Benchmark
+    public boolean verifyFullGame() {
+        return FleetCommitment.verify(GameConfig.CLASSIC, hash, opening, log);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.battleshipgame.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Full bot-vs-bot games, fleet generation included; the score is games per second. Run with
+// -prof gc to compare allocation: playGame builds everything per game, playResetGame reuses one
+// game and two opponents and should show no allocation at all.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameBenchmark {
+    @Param({"EASY", "NORMAL", "HARD"})
+    public Difficulty difficulty;
+
+    private final Random random = new Random(6);
+    private Game reused;
+    private Opponent[] reusedOpponents;
+
+    @Setup
+    public void setUp() {
+        reused = new Game(random);
+        reusedOpponents = new Opponent[]{new Opponent(difficulty, random), new Opponent(difficulty, random)};
+    }
+
+    @Benchmark
+    public boolean playGame() {
+        return play(new Game(random), new Opponent(difficulty, random), new Opponent(difficulty, random));
+    }
+
+    @Benchmark
+    public boolean playResetGame() {
+        reused.reset(random);
+        reusedOpponents[0].reset();
+        reusedOpponents[1].reset();
+        return play(reused, reusedOpponents[0], reusedOpponents[1]);
+    }
+
+    private static boolean play(Game game, Opponent first, Opponent second) {
+        while (!game.isOver()) {
+            Opponent shooter = game.isPlayerTurn() ? first : second;
+            int cell = shooter.nextShot(game.getDefendingBoard());
+            int row = cell / game.getConfig().getWidth();
+            int col = cell % game.getConfig().getWidth();
+            shooter.onShot(row, col, game.fire(row, col));
+        }
+        return game.hasPlayerWon();
+    }
+}
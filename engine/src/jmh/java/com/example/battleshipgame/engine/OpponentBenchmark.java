@@ -0,0 +1,46 @@
+package com.example.battleshipgame.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OpponentBenchmark {
+    @Param({"EASY", "NORMAL", "HARD"})
+    public Difficulty difficulty;
+
+    // How far into the game the target board is when the move is picked.
+    @Param({"10", "60"})
+    public int shotsFired;
+
+    private Board board;
+    private Opponent opponent;
+
+    @Setup
+    public void setUp() {
+        board = new Board();
+        Fleet.generateShips(board, new Random(4));
+        opponent = new Opponent(difficulty, new Random(5));
+        for (int i = 0; i < shotsFired && !board.areAllShipsDestroyed(); i++) {
+            int cell = opponent.nextShot(board);
+            int row = cell / board.getWidth();
+            int col = cell % board.getWidth();
+            opponent.onShot(row, col, board.shoot(row, col));
+        }
+    }
+
+    @Benchmark
+    public int nextShot() {
+        return opponent.nextShot(board);
+    }
+}
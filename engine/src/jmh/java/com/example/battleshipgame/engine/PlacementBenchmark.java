@@ -0,0 +1,55 @@
+package com.example.battleshipgame.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PlacementBenchmark {
+    // Board side; larger boards carry the classic fleet once per 10x10 of area.
+    @Param({"10", "100"})
+    public int side;
+
+    private final Random random = new Random(1);
+    private Board board;
+    private Board fullBoard;
+
+    @Setup
+    public void setUp() {
+        int[] fleet = new int[Fleet.SHIP_SIZES.length * side * side / 100];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = Fleet.SHIP_SIZES[i % Fleet.SHIP_SIZES.length];
+        }
+        GameConfig config = new GameConfig(side, side, fleet, AdjacencyRule.NO_CONTACT);
+        board = new Board(config);
+        fullBoard = new Board(config);
+        Fleet.generateShips(fullBoard, new Random(2));
+    }
+
+    @Benchmark
+    public Board generateShips() {
+        Fleet.generateShips(board, random);
+        return board;
+    }
+
+    @Benchmark
+    public int canPlaceShip() {
+        int legal = 0;
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                if (fullBoard.canPlaceShip(row, col, 2, (row & 1) == 0)) legal++;
+            }
+        }
+        return legal;
+    }
+}
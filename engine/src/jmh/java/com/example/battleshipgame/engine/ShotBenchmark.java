@@ -0,0 +1,65 @@
+package com.example.battleshipgame.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShotBenchmark {
+    private final Board board = new Board();
+    private final List<Ship> fleet = new ArrayList<>();
+    private Board halfSunk;
+
+    @Setup
+    public void setUp() {
+        Board source = new Board();
+        Fleet.generateShips(source, new Random(3));
+        fleet.addAll(source.getShips());
+
+        halfSunk = new Board();
+        for (Ship ship : fleet) {
+            halfSunk.addShip(ship);
+        }
+        for (int row = 0; row < halfSunk.getHeight(); row++) {
+            for (int col = 0; col < halfSunk.getWidth(); col += 2) {
+                halfSunk.shoot(row, col);
+            }
+        }
+    }
+
+    // Resolves a shot at every cell of a fresh board: 80 misses, 20 hits and 10 sinkings.
+    @Benchmark
+    public Board shootEveryCell() {
+        board.clear();
+        for (Ship ship : fleet) {
+            board.addShip(ship);
+        }
+        for (int row = 0; row < board.getHeight(); row++) {
+            for (int col = 0; col < board.getWidth(); col++) {
+                board.shoot(row, col);
+            }
+        }
+        return board;
+    }
+
+    @Benchmark
+    public ShotResult repeatShot() {
+        return halfSunk.shoot(0, 0);
+    }
+
+    @Benchmark
+    public boolean areAllShipsDestroyed() {
+        return halfSunk.areAllShipsDestroyed();
+    }
+}
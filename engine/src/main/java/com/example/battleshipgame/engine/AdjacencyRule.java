@@ -0,0 +1,12 @@
+package com.example.battleshipgame.engine;
+
+// Which cells around a ship other ships may not occupy. The same cells are marked as misses
+// once the ship is sunk.
+public enum AdjacencyRule {
+    // Classic rules: no shared edge or corner.
+    NO_CONTACT,
+    // Ships may meet at a corner but not along an edge.
+    NO_EDGE_CONTACT,
+    // Ships may touch; only overlapping is forbidden.
+    TOUCHING_ALLOWED
+}
@@ -0,0 +1,7 @@
+package com.example.battleshipgame.engine;
+
+public enum AttackResult {
+    MISS,
+    HIT,
+    UNKNOWN
+}
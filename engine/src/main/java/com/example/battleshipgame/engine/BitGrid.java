@@ -0,0 +1,99 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Arrays;
+
+// A width x height bitset laid out row by row, each row padded to whole 64-bit words so that
+// row-wise shifts never bleed into the next row. Bits past the width are always zero.
+final class BitGrid {
+    final int width;
+    final int height;
+    final int stride;
+    final long[] words;
+
+    BitGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.stride = (width + 63) >>> 6;
+        this.words = new long[height * stride];
+    }
+
+    boolean get(int row, int col) {
+        return (words[row * stride + (col >>> 6)] >>> col & 1L) != 0;
+    }
+
+    boolean get(int cell) {
+        return get(cell / width, cell % width);
+    }
+
+    void set(int row, int col) {
+        words[row * stride + (col >>> 6)] |= 1L << col;
+    }
+
+    void set(int cell) {
+        set(cell / width, cell % width);
+    }
+
+    void unset(int row, int col) {
+        words[row * stride + (col >>> 6)] &= ~(1L << col);
+    }
+
+    void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    void copyFrom(BitGrid other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    // Bits of word w in a row that lie inside the board.
+    long validMask(int w) {
+        int bits = width - (w << 6);
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+
+    boolean isRowRangeClear(int row, int col, int length) {
+        int base = row * stride;
+        int end = col + length;
+        while (col < end) {
+            int w = col >>> 6;
+            int to = Math.min(end, (w + 1) << 6);
+            long mask = rangeMask(col & 63, to - col);
+            if ((words[base + w] & mask) != 0) return false;
+            col = to;
+        }
+        return true;
+    }
+
+    void setRowRange(int row, int col, int length) {
+        int base = row * stride;
+        int end = col + length;
+        while (col < end) {
+            int w = col >>> 6;
+            int to = Math.min(end, (w + 1) << 6);
+            words[base + w] |= rangeMask(col & 63, to - col);
+            col = to;
+        }
+    }
+
+    boolean isColumnRangeClear(int row, int col, int length) {
+        int index = row * stride + (col >>> 6);
+        long bit = 1L << col;
+        for (int i = 0; i < length; i++, index += stride) {
+            if ((words[index] & bit) != 0) return false;
+        }
+        return true;
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static long rangeMask(int from, int length) {
+        long mask = length == 64 ? -1L : (1L << length) - 1;
+        return mask << from;
+    }
+}
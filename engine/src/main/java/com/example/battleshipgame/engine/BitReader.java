@@ -0,0 +1,31 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.ByteBuffer;
+
+// Reads what BitWriter wrote.
+final class BitReader {
+    private final ByteBuffer in;
+    private long buffered;
+    private int bufferedBits;
+
+    BitReader(ByteBuffer in) {
+        this.in = in;
+    }
+
+    long read(int count) {
+        long value = 0;
+        int filled = 0;
+        while (filled < count) {
+            if (bufferedBits == 0) {
+                buffered = in.get() & 0xffL;
+                bufferedBits = 8;
+            }
+            int take = Math.min(count - filled, bufferedBits);
+            value |= (buffered & ((1L << take) - 1)) << filled;
+            buffered >>>= take;
+            bufferedBits -= take;
+            filled += take;
+        }
+        return value;
+    }
+}
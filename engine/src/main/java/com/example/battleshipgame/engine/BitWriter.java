@@ -0,0 +1,46 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.ByteBuffer;
+
+// Writes values LSB first, 64 bits at a time, into the buffer in little-endian byte order.
+final class BitWriter {
+    private final ByteBuffer out;
+    private long pending;
+    private int pendingBits;
+
+    BitWriter(ByteBuffer out) {
+        this.out = out;
+    }
+
+    // Bits needed to store any value below count.
+    static int bitsFor(int count) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(count - 1));
+    }
+
+    void write(long value, int count) {
+        if (count < 64) {
+            value &= (1L << count) - 1;
+        }
+        pending |= value << pendingBits;
+        int free = 64 - pendingBits;
+        if (count < free) {
+            pendingBits += count;
+            return;
+        }
+        emit(pending, 64);
+        pending = count == free ? 0 : value >>> free;
+        pendingBits = count - free;
+    }
+
+    void flush() {
+        emit(pending, pendingBits);
+        pending = 0;
+        pendingBits = 0;
+    }
+
+    private void emit(long bits, int count) {
+        for (int i = 0; i < count; i += 8) {
+            out.put((byte) (bits >>> i));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.battleshipgame.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// One side of the game: the fleet plus every shot fired at it. Cells are numbered
+// row * width + col; hits, misses, sunk cells and the cells closed to new ships are BitGrids.
+// shipIndex maps each cell to the ship on it (index + 1, 0 for water) and remainingHits counts
+// the unhit cells of every ship, so hit, sunk and game-over checks never scan the fleet.
+public final class Board {
+    private final GameConfig config;
+    private final List<Ship> ships = new ArrayList<>();
+    private final List<Ship> shipsView = Collections.unmodifiableList(ships);
+    // Ships placed by placeShip(), kept across clear() to be moved rather than reallocated.
+    private final Ship[] ownShips;
+    private int ownShipCount;
+    private final BitGrid forbidden;
+    final BitGrid hits;
+    final BitGrid misses;
+    final BitGrid sunk;
+    final int[] sunkBySize;
+    private final short[] shipIndex;
+    private final short[] remainingHits;
+    private int aliveShips;
+    private Ship lastSunk;
+    private final ChangeSet changes;
+
+    public Board() {
+        this(GameConfig.CLASSIC);
+    }
+
+    public Board(GameConfig config) {
+        this.config = config;
+        this.forbidden = new BitGrid(config.width, config.height);
+        this.hits = new BitGrid(config.width, config.height);
+        this.misses = new BitGrid(config.width, config.height);
+        this.sunk = new BitGrid(config.width, config.height);
+        this.sunkBySize = new int[config.maxShipSize + 1];
+        this.shipIndex = new short[config.cells];
+        this.remainingHits = new short[config.fleet.length];
+        this.ownShips = new Ship[config.fleet.length];
+        this.changes = new ChangeSet(config.width, 2 * config.maxShipSize + 7);
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public int getWidth() {
+        return config.width;
+    }
+
+    public int getHeight() {
+        return config.height;
+    }
+
+    public int cell(int row, int col) {
+        return row * config.width + col;
+    }
+
+    public boolean canPlaceShip(int row, int col, int size, boolean isVertical) {
+        if (size < 1 || !Placements.fits(config, size, isVertical, row, col)) {
+            return false;
+        }
+        return Placements.isClear(forbidden, size, isVertical, row, col);
+    }
+
+    BitGrid getForbidden() {
+        return forbidden;
+    }
+
+    public void addShip(Ship ship) {
+        if (ships.size() == remainingHits.length) {
+            throw new IllegalStateException("The fleet already has " + ships.size() + " ships");
+        }
+        if (!Placements.fits(config, ship.getSize(), ship.isVertical(), ship.getRow(), ship.getCol())) {
+            throw new IllegalArgumentException("Ship of size " + ship.getSize() + " does not fit at "
+                    + ship.getRow() + "," + ship.getCol());
+        }
+        ships.add(ship);
+        short index = (short) ships.size();
+        int step = ship.isVertical() ? config.width : 1;
+        for (int i = 0, cell = cell(ship.getRow(), ship.getCol()); i < ship.getSize(); i++, cell += step) {
+            shipIndex[cell] = index;
+        }
+        remainingHits[index - 1] = (short) ship.getSize();
+        aliveShips++;
+        Placements.markZone(forbidden, config.adjacency, ship.getSize(), ship.isVertical(), ship.getRow(), ship.getCol());
+    }
+
+    // Adds a ship the board owns and reuses after clear().
+    void placeShip(int size, int row, int col, boolean isVertical) {
+        Ship ship = ownShips[ownShipCount];
+        if (ship == null) {
+            ship = ownShips[ownShipCount] = new Ship(size, row, col, isVertical);
+        } else {
+            ship.moveTo(size, row, col, isVertical);
+        }
+        ownShipCount++;
+        addShip(ship);
+    }
+
+    void clear() {
+        ships.clear();
+        ownShipCount = 0;
+        forbidden.clear();
+        hits.clear();
+        misses.clear();
+        sunk.clear();
+        Arrays.fill(sunkBySize, 0);
+        Arrays.fill(shipIndex, (short) 0);
+        aliveShips = 0;
+        lastSunk = null;
+        changes.clear();
+    }
+
+    // Resolves a shot; getChanges() then lists the shot cell and any misses marked around a
+    // ship it sank.
+    public ShotResult shoot(int row, int col) {
+        changes.clear();
+        if (hits.get(row, col) || misses.get(row, col)) {
+            return ShotResult.REPEAT;
+        }
+        int cell = cell(row, col);
+        changes.add(cell);
+        int index = shipIndex[cell];
+        if (index == 0) {
+            misses.set(row, col);
+            return ShotResult.MISS;
+        }
+
+        hits.set(row, col);
+        if (--remainingHits[index - 1] > 0) {
+            return ShotResult.HIT;
+        }
+        markSunk(ships.get(index - 1));
+        return ShotResult.SUNK;
+    }
+
+    // Records a shot resolved elsewhere, by a match server, on a board whose ships are only
+    // revealed when sunk: sunkShip is required for SUNK and ignored otherwise. getChanges() then
+    // lists the same cells shoot() would have.
+    public void applyResult(int row, int col, ShotResult result, Ship sunkShip) {
+        changes.clear();
+        if (result == ShotResult.REPEAT || hits.get(row, col) || misses.get(row, col)) {
+            return;
+        }
+        changes.add(cell(row, col));
+        if (result == ShotResult.MISS) {
+            misses.set(row, col);
+            return;
+        }
+        hits.set(row, col);
+        if (result == ShotResult.SUNK) {
+            addShip(sunkShip);
+            remainingHits[ships.size() - 1] = 0;
+            markSunk(sunkShip);
+        }
+    }
+
+    private void markSunk(Ship ship) {
+        for (int r = ship.getRow(); r <= ship.getLastRow(); r++) {
+            sunk.setRowRange(r, ship.getCol(), ship.getLastCol() - ship.getCol() + 1);
+        }
+        markMissesAroundSunkShip(ship);
+        sunkBySize[ship.getSize()]++;
+        aliveShips--;
+        lastSunk = ship;
+    }
+
+    private void markMissesAroundSunkShip(Ship sunkShip) {
+        if (config.adjacency == AdjacencyRule.TOUCHING_ALLOWED) {
+            return;
+        }
+        for (int r = Math.max(sunkShip.getRow() - 1, 0); r <= Math.min(sunkShip.getLastRow() + 1, config.height - 1); r++) {
+            for (int c = Math.max(sunkShip.getCol() - 1, 0); c <= Math.min(sunkShip.getLastCol() + 1, config.width - 1); c++) {
+                if (sunkShip.contains(r, c) || hits.get(r, c) || misses.get(r, c)) continue;
+                boolean isCorner = (r < sunkShip.getRow() || r > sunkShip.getLastRow())
+                        && (c < sunkShip.getCol() || c > sunkShip.getLastCol());
+                if (isCorner && config.adjacency == AdjacencyRule.NO_EDGE_CONTACT) continue;
+                misses.set(r, c);
+                changes.add(cell(r, c));
+            }
+        }
+    }
+
+    public boolean areAllShipsDestroyed() {
+        return aliveShips == 0;
+    }
+
+    public boolean isShip(int row, int col) {
+        return shipIndex[cell(row, col)] != 0;
+    }
+
+    // The ship occupying the cell, or null for water.
+    public Ship getShipAt(int row, int col) {
+        int index = shipIndex[cell(row, col)];
+        return index == 0 ? null : ships.get(index - 1);
+    }
+
+    public boolean isShot(int row, int col) {
+        return hits.get(row, col) || misses.get(row, col);
+    }
+
+    public AttackResult getAttackResult(int row, int col) {
+        if (hits.get(row, col)) return AttackResult.HIT;
+        if (misses.get(row, col)) return AttackResult.MISS;
+        return AttackResult.UNKNOWN;
+    }
+
+    public List<Ship> getShips() {
+        return shipsView;
+    }
+
+    public ChangeSet getChanges() {
+        return changes;
+    }
+
+    public Ship getLastSunk() {
+        return lastSunk;
+    }
+}
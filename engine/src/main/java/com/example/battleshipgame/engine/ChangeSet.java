@@ -0,0 +1,38 @@
+package com.example.battleshipgame.engine;
+
+// Cells whose state changed in the last engine action, so a renderer can redraw only those.
+// The instance is owned by the board and reused for every shot.
+public final class ChangeSet {
+    private final int width;
+    private final int[] cells;
+    private int size;
+
+    ChangeSet(int width, int capacity) {
+        this.width = width;
+        this.cells = new int[capacity];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int cell) {
+        cells[size++] = cell;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCell(int index) {
+        return cells[index];
+    }
+
+    public int getRow(int index) {
+        return cells[index] / width;
+    }
+
+    public int getCol(int index) {
+        return cells[index] % width;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.battleshipgame.engine;
+
+public enum Difficulty {
+    EASY,
+    NORMAL,
+    HARD,
+    EXPERT,
+    MULTIPLAYER
+}
@@ -0,0 +1,388 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Exact play once the ships still afloat can only lie in a handful of ways. Every fleet layout
+// consistent with the board is enumerated: ships are placed over the uncovered hits first, the
+// rest into free water, and a branch dies as soon as a ship has nowhere to go. If there are at
+// most maxLayouts of them (up to 64, so a set of layouts is one long), the shot is chosen by
+// searching the hit/miss game tree over those sets for the one with the fewest expected misses.
+// Every layout has the same number of ship cells left to hit, so that is also the fewest
+// expected shots. Layouts are taken as equally likely, and a sinking, which the board reports,
+// is folded in on the next move, when the solver starts again from the board. Enumeration and
+// search both give up at the time budget, and the caller then plays its usual way. All scratch
+// state is allocated up front, so a move allocates nothing. Not thread-safe.
+final class EndgameSolver {
+    static final int MAX_LAYOUTS = 64;
+    private static final int MAX_MEMO_BITS = 16;
+    private static final double EPSILON = 1e-9;
+
+    private final GameConfig config;
+    private final int maxShips;
+    private final int maxLayouts;
+    private final long budgetNanos;
+
+    private final BitGrid forbidden;
+    private final BitGrid uncovered;
+    // Per ship afloat, at most maxShips: its size (largest first), whether it is placed and where.
+    private final int[] sizes;
+    private final boolean[] used;
+    private final int[] placed;
+    private int shipCount;
+    // Candidate placements per recursion depth, 2 * maxShipSize each.
+    private final int[] candidates;
+    private final int candidateStride;
+    // Per recursion depth, the rows of forbidden and uncovered a placement overwrote.
+    private final long[][] undo;
+    private final int[] sunk;
+
+    // occupied[cell] has bit i set if layout i puts a ship on the (unshot) cell.
+    private final long[] occupied;
+    private int layouts;
+    private final int[] cells;
+    private int cellCount;
+
+    // Open-addressing memo from a set of layouts to its value. n layouts have at most 2^n sets,
+    // so up to 15 layouts every set fits and the search is bounded; past that the time budget
+    // is what bounds it.
+    private final int memoBits;
+    private final long[] memoKeys;
+    private final double[] memoValues;
+    private int memoSize;
+    private long deadline;
+    private int nodes;
+    private boolean timedOut;
+
+    static void checkLimits(int maxShips, int maxLayouts, long budgetNanos) {
+        if (maxShips < 1 || maxLayouts < 1 || maxLayouts > MAX_LAYOUTS || budgetNanos < 1) {
+            throw new IllegalArgumentException("Endgame limits must be at least 1 ship, 1 to " + MAX_LAYOUTS
+                    + " layouts and a positive budget");
+        }
+    }
+
+    EndgameSolver(GameConfig config, int maxShips, int maxLayouts, long budgetNanos) {
+        checkLimits(maxShips, maxLayouts, budgetNanos);
+        this.config = config;
+        this.maxShips = maxShips;
+        this.maxLayouts = maxLayouts;
+        this.budgetNanos = budgetNanos;
+        this.forbidden = new BitGrid(config.width, config.height);
+        this.uncovered = new BitGrid(config.width, config.height);
+        // The search never goes deeper than maxShips, however large the fleet.
+        this.sizes = new int[maxShips];
+        this.used = new boolean[maxShips];
+        this.placed = new int[maxShips];
+        this.candidateStride = 2 * config.maxShipSize * maxShips;
+        this.candidates = new int[candidateStride * maxShips];
+        this.undo = new long[maxShips][2 * (config.maxShipSize + 2) * forbidden.stride];
+        this.sunk = new int[config.maxShipSize + 1];
+        this.occupied = new long[config.cells];
+        this.cells = new int[config.cells];
+        this.memoBits = Math.min(maxLayouts + 1, MAX_MEMO_BITS);
+        this.memoKeys = new long[1 << memoBits];
+        this.memoValues = new double[1 << memoBits];
+    }
+
+    // The cell to shoot, or -1 if more than maxShips ships are afloat, there are more than
+    // maxLayouts layouts left or none at all, or the budget ran out.
+    int nextShot(Board board, Random random) {
+        deadline = System.nanoTime() + budgetNanos;
+        nodes = 0;
+        timedOut = false;
+        if (!enumerate(board) || layouts == 0) {
+            return -1;
+        }
+
+        long all = layouts == MAX_LAYOUTS ? -1L : (1L << layouts) - 1;
+        cellCount = 0;
+        int sure = -1;
+        for (int cell = 0; cell < config.cells; cell++) {
+            if (occupied[cell] == 0) continue;
+            if (occupied[cell] == all) {
+                sure = cell;
+            } else if (isNewMask(occupied[cell])) {
+                cells[cellCount++] = cell;
+            }
+        }
+        if (cellCount == 0) {
+            // Every layout left puts ships on the same cells.
+            return sure;
+        }
+
+        sortByBalance();
+        Arrays.fill(memoKeys, 0);
+        memoSize = 0;
+        int best = -1;
+        double bestValue = Double.MAX_VALUE;
+        int ties = 0;
+        for (int i = 0; i < cellCount; i++) {
+            double value = shotValue(all, occupied[cells[i]], Double.MAX_VALUE);
+            if (timedOut) return -1;
+            if (value < bestValue - EPSILON) {
+                bestValue = value;
+                best = cells[i];
+                ties = 1;
+            } else if (value <= bestValue + EPSILON && random.nextInt(++ties) == 0) {
+                best = cells[i];
+            }
+        }
+        return best;
+    }
+
+    // Cells ships cover in exactly the same layouts are interchangeable: only one is searched.
+    private boolean isNewMask(long mask) {
+        for (int i = 0; i < cellCount; i++) {
+            if (occupied[cells[i]] == mask) return false;
+        }
+        return true;
+    }
+
+    // Most even split first, so good shots are found early and cut off the worse ones.
+    private void sortByBalance() {
+        for (int i = 1; i < cellCount; i++) {
+            int cell = cells[i];
+            int balance = Math.abs(2 * Long.bitCount(occupied[cell]) - layouts);
+            int j = i - 1;
+            for (; j >= 0 && Math.abs(2 * Long.bitCount(occupied[cells[j]]) - layouts) > balance; j--) {
+                cells[j + 1] = cells[j];
+            }
+            cells[j + 1] = cell;
+        }
+    }
+
+    // Expected misses from here on if the layouts in alive are left and are played perfectly.
+    private double solve(long alive) {
+        if (Long.bitCount(alive) == 1) {
+            return 0;
+        }
+        int slot = find(alive);
+        if (memoKeys[slot] == alive) {
+            return memoValues[slot];
+        }
+        if ((++nodes & 255) == 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+        }
+
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < cellCount && !timedOut; i++) {
+            long hit = alive & occupied[cells[i]];
+            if (hit == 0 || hit == alive) continue;
+            best = Math.min(best, shotValue(alive, hit, best));
+        }
+        if (best == Double.MAX_VALUE) {
+            // Every layout left puts ships on the same cells: no more misses needed.
+            best = 0;
+        }
+        if (!timedOut) {
+            store(slot, alive, best);
+        }
+        return best;
+    }
+
+    // Expected misses after shooting a cell that is a ship in the layouts of hit, or bound if it
+    // cannot beat that. n layouts always cost at least (n - 1) / n misses, what they cost if
+    // every shot missed in only one of them, so some shots are ruled out before searching.
+    private double shotValue(long alive, long hit, double bound) {
+        long miss = alive & ~hit;
+        int total = Long.bitCount(alive);
+        int misses = Long.bitCount(miss);
+        if ((double) (total + misses - 2) / total >= bound) {
+            return bound;
+        }
+        double value = (misses * (1 + solve(miss)) + (total - misses) * solve(hit)) / total;
+        return Math.min(value, bound);
+    }
+
+    // The slot holding key, or the empty slot it would go in.
+    private int find(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h >>> (64 - memoBits));
+        while (memoKeys[slot] != 0 && memoKeys[slot] != key) {
+            slot = (slot + 1) & (memoKeys.length - 1);
+        }
+        return slot;
+    }
+
+    // Stops adding keys at three quarters full; the search goes on, only slower.
+    private void store(int slot, long key, double value) {
+        if (memoKeys[slot] == 0) {
+            if (memoSize >= memoKeys.length / 4 * 3) return;
+            memoKeys[slot] = key;
+            memoSize++;
+        }
+        memoValues[slot] = value;
+    }
+
+    // Fills occupied with every layout consistent with the board; false if there are more than
+    // maxLayouts or the budget ran out first.
+    private boolean enumerate(Board board) {
+        System.arraycopy(board.sunkBySize, 0, sunk, 0, sunk.length);
+        shipCount = 0;
+        for (int size = config.maxShipSize; size >= 1; size--) {
+            for (int s : config.fleet) {
+                if (s != size) continue;
+                if (sunk[size] > 0) {
+                    sunk[size]--;
+                } else if (shipCount == maxShips) {
+                    layouts = 0;
+                    return false;
+                } else {
+                    sizes[shipCount++] = size;
+                }
+            }
+        }
+        if (shipCount == 0) {
+            layouts = 0;
+            return true;
+        }
+
+        int uncoveredCount = 0;
+        for (int i = 0; i < forbidden.words.length; i++) {
+            forbidden.words[i] = board.misses.words[i] | board.sunk.words[i];
+            uncovered.words[i] = board.hits.words[i] & ~board.sunk.words[i];
+            uncoveredCount += Long.bitCount(uncovered.words[i]);
+        }
+        if (config.adjacency == AdjacencyRule.NO_CONTACT) {
+            for (int cell = 0; cell < config.cells; cell++) {
+                if (uncovered.get(cell)) blockDiagonals(cell / config.width, cell % config.width);
+            }
+        }
+
+        Arrays.fill(used, 0, shipCount, false);
+        Arrays.fill(occupied, 0);
+        layouts = 0;
+        return place(board, 0, uncoveredCount, -1);
+    }
+
+    // Places the depth-th ship. lastFree is the last placement given to a free-water ship; ships
+    // of one size in free water are placed in increasing order, so each layout comes once.
+    private boolean place(Board board, int depth, int uncoveredCount, int lastFree) {
+        if (depth == shipCount) {
+            if (uncoveredCount > 0) return true;
+            if (layouts == maxLayouts) return false;
+            for (int d = 0; d < shipCount; d++) {
+                int p = placed[d];
+                for (int i = 0; i < Placements.size(config, p); i++) {
+                    int cell = Placements.cell(config, p, i);
+                    if (!board.hits.get(cell)) occupied[cell] |= 1L << layouts;
+                }
+            }
+            layouts++;
+            return true;
+        }
+        if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+            return false;
+        }
+
+        int base = depth * candidateStride;
+        int count = 0;
+        if (uncoveredCount > 0) {
+            int hit = firstSet(uncovered);
+            int lastSize = -1;
+            for (int i = 0; i < shipCount; i++) {
+                if (used[i] || sizes[i] == lastSize) continue;
+                lastSize = sizes[i];
+                count += Placements.covering(config, lastSize, hit / config.width, hit % config.width,
+                        candidates, base + count);
+            }
+        } else {
+            int size = sizes[firstUnused()];
+            // A one-cell ship is the same either way up; only its horizontal placement is used.
+            for (int vertical = 0; vertical < (size == 1 ? 1 : 2); vertical++) {
+                for (int row = 0; row < config.height; row++) {
+                    for (int col = 0; col < config.width; col++) {
+                        if (!Placements.fits(config, size, vertical == 1, row, col)) continue;
+                        int p = Placements.index(config, size, vertical == 1, row, col);
+                        if (p <= lastFree && Placements.size(config, lastFree) == size) continue;
+                        if (!Placements.isClear(forbidden, size, vertical == 1, row, col)) continue;
+                        if (!tryPlacement(board, depth, p, 0, p)) return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        for (int k = base; k < base + count; k++) {
+            int p = candidates[k];
+            if (Placements.size(config, p) == 1 && Placements.isVertical(config, p)) continue;
+            int origin = Placements.origin(config, p);
+            if (!Placements.isClear(forbidden, Placements.size(config, p), Placements.isVertical(config, p),
+                    origin / config.width, origin % config.width)) continue;
+            if (!tryPlacement(board, depth, p, uncoveredCount, lastFree)) return false;
+        }
+        return true;
+    }
+
+    private boolean tryPlacement(Board board, int depth, int p, int uncoveredCount, int lastFree) {
+        int size = Placements.size(config, p);
+        boolean isVertical = Placements.isVertical(config, p);
+        int origin = Placements.origin(config, p);
+        int covered = 0;
+        for (int i = 0; i < size; i++) {
+            if (uncovered.get(Placements.cell(config, p, i))) covered++;
+        }
+        if (covered == size) {
+            // Every cell already hit: that ship would have been reported sunk.
+            return true;
+        }
+
+        // Only rows from one above the ship to one below it change; they are saved and put back.
+        int row = origin / config.width;
+        int from = Math.max(row - 1, 0) * forbidden.stride;
+        int to = (Math.min(isVertical ? row + size : row + 1, config.height - 1) + 1) * forbidden.stride;
+        long[] saved = undo[depth];
+        System.arraycopy(forbidden.words, from, saved, 0, to - from);
+        System.arraycopy(uncovered.words, from, saved, to - from, to - from);
+
+        for (int i = 0; i < size; i++) {
+            int cell = Placements.cell(config, p, i);
+            if (uncovered.get(cell)) uncovered.unset(cell / config.width, cell % config.width);
+        }
+        Placements.markZone(forbidden, config.adjacency, size, isVertical, row, origin % config.width);
+        int ship = unusedShip(size);
+        used[ship] = true;
+        placed[depth] = p;
+
+        boolean done = place(board, depth + 1, uncoveredCount - covered, uncoveredCount > 0 ? lastFree : p);
+
+        used[ship] = false;
+        System.arraycopy(saved, 0, forbidden.words, from, to - from);
+        System.arraycopy(saved, to - from, uncovered.words, from, to - from);
+        return done;
+    }
+
+    private void blockDiagonals(int row, int col) {
+        for (int r = row - 1; r <= row + 1; r += 2) {
+            for (int c = col - 1; c <= col + 1; c += 2) {
+                if (r >= 0 && r < config.height && c >= 0 && c < config.width) {
+                    forbidden.set(r, c);
+                }
+            }
+        }
+    }
+
+    private int firstSet(BitGrid grid) {
+        for (int i = 0; i < grid.words.length; i++) {
+            if (grid.words[i] != 0) {
+                return (i / grid.stride) * config.width + ((i % grid.stride) << 6)
+                        + Long.numberOfTrailingZeros(grid.words[i]);
+            }
+        }
+        return -1;
+    }
+
+    private int unusedShip(int size) {
+        for (int i = 0; i < shipCount; i++) {
+            if (!used[i] && sizes[i] == size) return i;
+        }
+        return -1;
+    }
+
+    private int firstUnused() {
+        for (int i = 0; i < shipCount; i++) {
+            if (!used[i]) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Random;
+
+public final class Fleet {
+    public static final int[] SHIP_SIZES = {1, 1, 1, 1, 2, 2, 2, 3, 3, 4};
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private Fleet() {
+    }
+
+    // Picks each ship uniformly among its currently legal placements, which is the same
+    // distribution the old rejection sampling produced but never loops on a crowded board.
+    // If some ship has nowhere left to go, the whole fleet is laid out again.
+    public static void generateShips(Board board, Random random) {
+        generateShips(board, random, new PlacementFinder(board.getConfig()));
+    }
+
+    static void generateShips(Board board, Random random, PlacementFinder finder) {
+        GameConfig config = board.getConfig();
+
+        retry:
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            board.clear();
+            for (int size : config.fleet) {
+                int count = finder.count(board.getForbidden(), size);
+                if (count == 0) {
+                    continue retry;
+                }
+                int p = finder.select(random.nextInt(count));
+                int origin = Placements.origin(config, p);
+                board.placeShip(size, origin / config.width, origin % config.width, Placements.isVertical(config, p));
+            }
+            return;
+        }
+        throw new IllegalStateException("Fleet " + config + " could not be placed in " + MAX_ATTEMPTS + " attempts");
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+
+// Commit-reveal for a fleet layout. The commitment is SHA-256 over a random salt followed by
+// the fleet packed as placement indices (13 bytes for the classic fleet), so it can be handed
+// out before the first shot without giving the layout away. The opening (salt plus packed
+// fleet) is revealed at game end, when verify() checks it against the commitment, checks the
+// layout is legal under the rules and replays every logged answer against it.
+public final class FleetCommitment {
+    public static final int SALT_SIZE = 16;
+    public static final int HASH_SIZE = 32;
+
+    private final byte[] hash;
+    private final byte[] opening;
+
+    private FleetCommitment(byte[] hash, byte[] opening) {
+        this.hash = hash;
+        this.opening = opening;
+    }
+
+    public static FleetCommitment of(Board board, Random saltSource) {
+        GameConfig config = board.getConfig();
+        ByteBuffer out = ByteBuffer.allocate(openingSize(config));
+        byte[] salt = new byte[SALT_SIZE];
+        saltSource.nextBytes(salt);
+        out.put(salt);
+        BitWriter bits = new BitWriter(out);
+        int placementBits = BitWriter.bitsFor(Placements.count(config));
+        for (Ship ship : board.getShips()) {
+            bits.write(Placements.index(config, ship.getSize(), ship.isVertical(), ship.getRow(), ship.getCol()),
+                    placementBits);
+        }
+        bits.flush();
+        byte[] opening = out.array();
+        return new FleetCommitment(sha256(opening), opening);
+    }
+
+    public static int openingSize(GameConfig config) {
+        long bits = config.fleet.length * (long) BitWriter.bitsFor(Placements.count(config));
+        return (int) (SALT_SIZE + (bits + 7) / 8);
+    }
+
+    public byte[] getHash() {
+        return hash.clone();
+    }
+
+    public byte[] getOpening() {
+        return opening.clone();
+    }
+
+    // True if the opening matches the commitment, holds a legal fleet for the rules and every
+    // result in the log is what a shot at that fleet really gives.
+    public static boolean verify(GameConfig config, byte[] hash, byte[] opening, ShotLog log) {
+        if (hash.length != HASH_SIZE || opening.length != openingSize(config)
+                || !MessageDigest.isEqual(hash, sha256(opening))) {
+            return false;
+        }
+        Board board = unpack(config, opening);
+        if (board == null) {
+            return false;
+        }
+        for (int i = 0; i < log.size(); i++) {
+            int cell = log.cell(i);
+            if (cell >= config.cells || board.shoot(cell / config.width, cell % config.width) != log.result(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The fleet in the opening, or null if it is not one the rules allow.
+    private static Board unpack(GameConfig config, byte[] opening) {
+        ByteBuffer in = ByteBuffer.wrap(opening, SALT_SIZE, opening.length - SALT_SIZE);
+        BitReader bits = new BitReader(in);
+        int placementBits = BitWriter.bitsFor(Placements.count(config));
+        int[] sizes = new int[config.fleet.length];
+        Board board = new Board(config);
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                int p = (int) bits.read(placementBits);
+                int size = Placements.size(config, p);
+                int origin = Placements.origin(config, p);
+                int row = origin / config.width;
+                int col = origin % config.width;
+                if (!board.canPlaceShip(row, col, size, Placements.isVertical(config, p))) {
+                    return null;
+                }
+                board.addShip(new Ship(size, row, col, Placements.isVertical(config, p)));
+                sizes[i] = size;
+            }
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+        int[] fleet = config.fleet.clone();
+        Arrays.sort(fleet);
+        Arrays.sort(sizes);
+        return Arrays.equals(fleet, sizes) ? board : null;
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java and Android runtime is required to provide SHA-256.
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Random;
+
+public final class Game {
+    private final GameConfig config;
+    private final Board playerBoard;
+    private final Board opponentBoard;
+    private final PlacementFinder finder;
+    private boolean isPlayerTurn = true;
+    private boolean isOver;
+
+    public Game(Random random) {
+        this(GameConfig.CLASSIC, random);
+    }
+
+    public Game(GameConfig config, Random random) {
+        this.config = config;
+        this.playerBoard = new Board(config);
+        this.opponentBoard = new Board(config);
+        this.finder = new PlacementFinder(config);
+        Fleet.generateShips(playerBoard, random, finder);
+        Fleet.generateShips(opponentBoard, random, finder);
+    }
+
+    // Resumes a game from restored boards; see GameSnapshot.
+    Game(GameConfig config, Board playerBoard, Board opponentBoard, boolean isPlayerTurn) {
+        this.config = config;
+        this.playerBoard = playerBoard;
+        this.opponentBoard = opponentBoard;
+        this.isPlayerTurn = isPlayerTurn;
+        this.isOver = playerBoard.areAllShipsDestroyed() || opponentBoard.areAllShipsDestroyed();
+        this.finder = new PlacementFinder(config);
+    }
+
+    // Starts a new game on the same boards, drawing fleets exactly as the constructor does, so
+    // reset(new Random(s)) deals the same game as new Game(config, new Random(s)). Allocates
+    // nothing once each board has laid out a fleet.
+    public void reset(Random random) {
+        Fleet.generateShips(playerBoard, random, finder);
+        Fleet.generateShips(opponentBoard, random, finder);
+        isPlayerTurn = true;
+        isOver = false;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    // The side whose turn it is fires at the other side's board. The turn passes after every
+    // accepted shot, hit or miss, until one fleet is destroyed.
+    public ShotResult fire(int row, int col) {
+        if (isOver) {
+            return ShotResult.REPEAT;
+        }
+        Board target = getDefendingBoard();
+        ShotResult result = target.shoot(row, col);
+        if (result == ShotResult.REPEAT) {
+            return result;
+        }
+        if (target.areAllShipsDestroyed()) {
+            isOver = true;
+        } else {
+            isPlayerTurn = !isPlayerTurn;
+        }
+        return result;
+    }
+
+    public Board getDefendingBoard() {
+        return isPlayerTurn ? opponentBoard : playerBoard;
+    }
+
+    public Board getPlayerBoard() {
+        return playerBoard;
+    }
+
+    public Board getOpponentBoard() {
+        return opponentBoard;
+    }
+
+    public boolean isPlayerTurn() {
+        return isPlayerTurn;
+    }
+
+    public boolean isOver() {
+        return isOver;
+    }
+
+    public boolean hasPlayerWon() {
+        return isOver && opponentBoard.areAllShipsDestroyed();
+    }
+}
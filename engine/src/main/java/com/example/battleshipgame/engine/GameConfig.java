@@ -0,0 +1,106 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public final class GameConfig {
+    public static final GameConfig CLASSIC = new GameConfig(10, 10, Fleet.SHIP_SIZES, AdjacencyRule.NO_CONTACT);
+
+    final int width;
+    final int height;
+    final int cells;
+    final int[] fleet;
+    final int maxShipSize;
+    final AdjacencyRule adjacency;
+
+    public GameConfig(int width, int height, int[] fleet, AdjacencyRule adjacency) {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE / 64) {
+            throw new IllegalArgumentException("Unsupported board size " + width + "x" + height);
+        }
+        if (fleet.length == 0 || fleet.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Fleet must have between 1 and " + Short.MAX_VALUE + " ships");
+        }
+        int max = 0;
+        for (int size : fleet) {
+            if (size < 1 || size > Math.max(width, height) || size > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Ship of size " + size + " does not fit a " + width + "x" + height + " board");
+            }
+            max = Math.max(max, size);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = width * height;
+        this.fleet = fleet.clone();
+        this.maxShipSize = max;
+        this.adjacency = adjacency;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public int[] getFleet() {
+        return fleet.clone();
+    }
+
+    public AdjacencyRule getAdjacency() {
+        return adjacency;
+    }
+
+    public int getMaxShipSize() {
+        return maxShipSize;
+    }
+
+    // Binary form shared by snapshots and journals.
+    void writeTo(ByteBuffer out) {
+        out.putInt(width);
+        out.putInt(height);
+        out.put((byte) adjacency.ordinal());
+        out.putShort((short) fleet.length);
+        for (int size : fleet) {
+            out.putShort((short) size);
+        }
+    }
+
+    static GameConfig readFrom(ByteBuffer in) {
+        int width = in.getInt();
+        int height = in.getInt();
+        AdjacencyRule adjacency = AdjacencyRule.values()[in.get()];
+        int[] fleet = new int[in.getShort() & 0xffff];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = in.getShort() & 0xffff;
+        }
+        return new GameConfig(width, height, fleet, adjacency);
+    }
+
+    int encodedSize() {
+        return 11 + 2 * fleet.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameConfig)) return false;
+        GameConfig other = (GameConfig) o;
+        return width == other.width && height == other.height && adjacency == other.adjacency
+                && Arrays.equals(fleet, other.fleet);
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * (31 * width + height) + Arrays.hashCode(fleet)) * 31 + adjacency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + " " + Arrays.toString(fleet) + " " + adjacency;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+// Binary save format for a game in progress. After a two-byte header (version, then turn,
+// difficulty and whether the rules are custom) comes, for non-classic rules only, the config;
+// then a bit-packed body: every ship of both boards as its placement index, every shot cell of
+// both boards as one bit, and the opponent's last hit. Hits, misses and sunk ships are replayed
+// from the shots on restore. A classic game takes 53 bytes.
+public final class GameSnapshot {
+    private static final int VERSION = 1;
+    private static final int PLAYER_TURN = 1;
+    private static final int CUSTOM_RULES = 2;
+
+    private final Game game;
+    private final Opponent opponent;
+
+    private GameSnapshot(Game game, Opponent opponent) {
+        this.game = game;
+        this.opponent = opponent;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public Opponent getOpponent() {
+        return opponent;
+    }
+
+    public static byte[] toBytes(Game game, Opponent opponent) {
+        ByteBuffer out = ByteBuffer.allocate(maxSize(game.getConfig()));
+        write(game, opponent, out);
+        byte[] bytes = new byte[out.position()];
+        out.flip();
+        out.get(bytes);
+        return bytes;
+    }
+
+    public static int maxSize(GameConfig config) {
+        long bits = 2L * (config.fleet.length * (long) BitWriter.bitsFor(Placements.count(config)) + config.cells)
+                + 1 + BitWriter.bitsFor(config.cells);
+        return (int) (2 + config.encodedSize() + (bits + 7) / 8);
+    }
+
+    public static void write(Game game, Opponent opponent, ByteBuffer out) {
+        GameConfig config = game.getConfig();
+        boolean custom = !config.equals(GameConfig.CLASSIC);
+        out.put((byte) VERSION);
+        out.put((byte) ((game.isPlayerTurn() ? PLAYER_TURN : 0) | (custom ? CUSTOM_RULES : 0)
+                | (opponent != null ? opponent.getDifficulty().ordinal() << 2 : 0)));
+        if (custom) {
+            config.writeTo(out);
+        }
+
+        BitWriter bits = new BitWriter(out);
+        int placementBits = BitWriter.bitsFor(Placements.count(config));
+        for (Board board : new Board[]{game.getPlayerBoard(), game.getOpponentBoard()}) {
+            for (Ship ship : board.getShips()) {
+                bits.write(Placements.index(config, ship.getSize(), ship.isVertical(), ship.getRow(), ship.getCol()),
+                        placementBits);
+            }
+            for (int i = 0; i < board.hits.words.length; i++) {
+                int bitsInWord = Math.min(64, config.width - ((i % board.hits.stride) << 6));
+                bits.write(board.hits.words[i] | board.misses.words[i], bitsInWord);
+            }
+        }
+        int lastHit = opponent != null ? opponent.getLastHit(game.getPlayerBoard()) : -1;
+        bits.write(lastHit == -1 ? 0 : 1, 1);
+        if (lastHit != -1) {
+            bits.write(lastHit, BitWriter.bitsFor(config.cells));
+        }
+        bits.flush();
+    }
+
+    // Throws IllegalArgumentException if the data is not a snapshot this version can read.
+    public static GameSnapshot read(ByteBuffer in, Random random) {
+        return decode(in, random);
+    }
+
+    // The game alone, for snapshots written without an opponent.
+    static Game readGame(ByteBuffer in) {
+        return decode(in, null).game;
+    }
+
+    private static GameSnapshot decode(ByteBuffer in, Random random) {
+        try {
+            if (in.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version");
+            }
+            int flags = in.get() & 0xff;
+            Difficulty difficulty = Difficulty.values()[flags >>> 2];
+            GameConfig config = GameConfig.CLASSIC;
+            if ((flags & CUSTOM_RULES) != 0) {
+                config = GameConfig.readFrom(in);
+            }
+
+            BitReader bits = new BitReader(in);
+            int placementBits = BitWriter.bitsFor(Placements.count(config));
+            Board[] boards = new Board[2];
+            for (int side = 0; side < 2; side++) {
+                Board board = boards[side] = new Board(config);
+                for (int i = 0; i < config.fleet.length; i++) {
+                    int p = (int) bits.read(placementBits);
+                    int origin = Placements.origin(config, p);
+                    board.addShip(new Ship(Placements.size(config, p), origin / config.width, origin % config.width,
+                            Placements.isVertical(config, p)));
+                }
+                for (int row = 0; row < config.height; row++) {
+                    for (int col = 0; col < config.width; col += 64) {
+                        long shots = bits.read(Math.min(64, config.width - col));
+                        for (; shots != 0; shots &= shots - 1) {
+                            board.shoot(row, col + Long.numberOfTrailingZeros(shots));
+                        }
+                    }
+                }
+            }
+
+            Game game = new Game(config, boards[0], boards[1], (flags & PLAYER_TURN) != 0);
+            Opponent opponent = random != null ? new Opponent(difficulty, config, random) : null;
+            if (bits.read(1) != 0) {
+                int lastHit = (int) bits.read(BitWriter.bitsFor(config.cells));
+                if (opponent != null) {
+                    opponent.restoreLastHit(boards[0], lastHit);
+                }
+            }
+            return new GameSnapshot(game, opponent);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or corrupt snapshot", e);
+        }
+    }
+}
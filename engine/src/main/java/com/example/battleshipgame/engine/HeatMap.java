@@ -0,0 +1,215 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Placement-probability targeting. For every ship size still afloat it keeps the set of
+// placements that are still possible and, per cell, how many of them cover it. New shots are
+// folded in incrementally: only placements through a newly blocked cell are retired.
+final class HeatMap {
+    private final GameConfig config;
+    private final boolean[] alive;
+    private final int[][] countBySize;
+    private final int[] remaining;
+    private final int[] sunk;
+    private final int[] heat;
+    private final int[] target;
+    private final int[] covering;
+
+    // Cells no remaining ship can occupy: misses (including the halos of sunk ships), sunk ship
+    // cells and, under the classic rule, the diagonal neighbours of hits.
+    private final BitGrid blocked;
+    // Hits on ships that are not sunk yet.
+    private final BitGrid open;
+    private final BitGrid seen;
+    private final BitGrid seenSunk;
+    // Every cell of the board, and the counter that finds the placements on it on reset.
+    private final BitGrid everywhere;
+    private final PlacementCounter counter;
+
+    HeatMap(GameConfig config) {
+        this.config = config;
+        this.alive = new boolean[Placements.count(config)];
+        this.countBySize = new int[config.maxShipSize + 1][];
+        this.remaining = new int[config.maxShipSize + 1];
+        this.sunk = new int[config.maxShipSize + 1];
+        this.heat = new int[config.cells];
+        this.target = new int[config.cells];
+        this.covering = new int[2 * config.maxShipSize];
+        this.blocked = new BitGrid(config.width, config.height);
+        this.open = new BitGrid(config.width, config.height);
+        this.seen = new BitGrid(config.width, config.height);
+        this.seenSunk = new BitGrid(config.width, config.height);
+        this.everywhere = new BitGrid(config.width, config.height);
+        for (int row = 0; row < config.height; row++) {
+            everywhere.setRowRange(row, 0, config.width);
+        }
+        this.counter = new PlacementCounter(config.width, config.height, config.maxShipSize);
+        reset();
+    }
+
+    // Back to an untouched board: every placement alive, every ship of the fleet remaining.
+    void reset() {
+        Arrays.fill(remaining, 0);
+        Arrays.fill(sunk, 0);
+        Arrays.fill(heat, 0);
+        blocked.clear();
+        open.clear();
+        seen.clear();
+        seenSunk.clear();
+        for (int size : config.fleet) {
+            remaining[size]++;
+        }
+        for (int size = 1; size <= config.maxShipSize; size++) {
+            if (remaining[size] == 0) continue;
+            if (countBySize[size] == null) {
+                countBySize[size] = new int[config.cells];
+            }
+            int[] counts = countBySize[size];
+            counter.count(everywhere, size, counts);
+            markAlive(size, false, counter.horizontal);
+            markAlive(size, true, counter.vertical);
+            for (int cell = 0; cell < config.cells; cell++) {
+                heat[cell] += remaining[size] * counts[cell];
+            }
+        }
+    }
+
+    private void markAlive(int size, boolean isVertical, BitGrid origins) {
+        for (int i = 0; i < origins.words.length; i++) {
+            for (long bits = origins.words[i]; bits != 0; bits &= bits - 1) {
+                int row = i / origins.stride;
+                int col = ((i % origins.stride) << 6) + Long.numberOfTrailingZeros(bits);
+                alive[Placements.index(config, size, isVertical, row, col)] = true;
+            }
+        }
+    }
+
+    int nextShot(Board board, Random random) {
+        sync(board);
+
+        int[] scores = heat;
+        if (open.cardinality() > 0) {
+            scoreTargets(board);
+            scores = target;
+        }
+
+        int best = -1;
+        int bestScore = 0;
+        int ties = 0;
+        for (int cell = 0; cell < config.cells; cell++) {
+            if (scores[cell] < bestScore || !isUnknown(board, cell)) continue;
+            if (scores[cell] > bestScore) {
+                bestScore = scores[cell];
+                best = cell;
+                ties = 1;
+            } else if (random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        if (best == -1 || bestScore == 0) {
+            do {
+                best = random.nextInt(config.cells);
+            } while (board.hits.get(best) || board.misses.get(best));
+        }
+        return best;
+    }
+
+    private boolean isUnknown(Board board, int cell) {
+        return !board.hits.get(cell) && !board.misses.get(cell) && !blocked.get(cell);
+    }
+
+    private void scoreTargets(Board board) {
+        Arrays.fill(target, 0);
+        for (int i = 0; i < open.words.length; i++) {
+            for (long bits = open.words[i]; bits != 0; bits &= bits - 1) {
+                int row = i / open.stride;
+                int col = ((i % open.stride) << 6) + Long.numberOfTrailingZeros(bits);
+                for (int size = 1; size <= config.maxShipSize; size++) {
+                    if (remaining[size] == 0) continue;
+                    int count = Placements.covering(config, size, row, col, covering, 0);
+                    for (int k = 0; k < count; k++) {
+                        if (!alive[covering[k]]) continue;
+                        for (int j = 0; j < size; j++) {
+                            int cell = Placements.cell(config, covering[k], j);
+                            if (isUnknown(board, cell)) {
+                                target[cell] += remaining[size];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void sync(Board board) {
+        int stride = seen.stride;
+        for (int i = 0; i < seen.words.length; i++) {
+            long hits = board.hits.words[i];
+            long fresh = (hits | board.misses.words[i]) & ~seen.words[i];
+            seen.words[i] |= fresh;
+            for (; fresh != 0; fresh &= fresh - 1) {
+                int bit = Long.numberOfTrailingZeros(fresh);
+                int row = i / stride;
+                int col = ((i % stride) << 6) + bit;
+                if ((hits >>> bit & 1L) != 0) {
+                    open.set(row, col);
+                    if (config.adjacency == AdjacencyRule.NO_CONTACT) {
+                        blockDiagonals(row, col);
+                    }
+                } else {
+                    block(row, col);
+                }
+            }
+        }
+
+        for (int i = 0; i < seenSunk.words.length; i++) {
+            long fresh = board.sunk.words[i] & ~seenSunk.words[i];
+            seenSunk.words[i] |= fresh;
+            open.words[i] &= ~board.sunk.words[i];
+            for (; fresh != 0; fresh &= fresh - 1) {
+                block(i / stride, ((i % stride) << 6) + Long.numberOfTrailingZeros(fresh));
+            }
+        }
+
+        for (int size = 1; size <= config.maxShipSize; size++) {
+            int newlySunk = board.sunkBySize[size] - sunk[size];
+            if (newlySunk == 0) continue;
+            sunk[size] = board.sunkBySize[size];
+            remaining[size] -= newlySunk;
+            for (int cell = 0; cell < config.cells; cell++) {
+                heat[cell] -= newlySunk * countBySize[size][cell];
+            }
+        }
+    }
+
+    private void blockDiagonals(int row, int col) {
+        for (int r = row - 1; r <= row + 1; r += 2) {
+            for (int c = col - 1; c <= col + 1; c += 2) {
+                if (r >= 0 && r < config.height && c >= 0 && c < config.width) {
+                    block(r, c);
+                }
+            }
+        }
+    }
+
+    private void block(int row, int col) {
+        if (blocked.get(row, col)) return;
+        blocked.set(row, col);
+
+        for (int size = 1; size <= config.maxShipSize; size++) {
+            if (countBySize[size] == null) continue;
+            int count = Placements.covering(config, size, row, col, covering, 0);
+            for (int k = 0; k < count; k++) {
+                int p = covering[k];
+                if (!alive[p]) continue;
+                alive[p] = false;
+                for (int i = 0; i < size; i++) {
+                    int covered = Placements.cell(config, p, i);
+                    countBySize[size][covered]--;
+                    heat[covered] -= remaining[size];
+                }
+            }
+        }
+    }
+}
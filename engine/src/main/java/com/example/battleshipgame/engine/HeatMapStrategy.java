@@ -0,0 +1,74 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Random;
+
+// HARD, and EXPERT when search is given: plays the opening book until the first hit, then the
+// endgame solver if there is one, then EXPERT's Monte Carlo search, and otherwise the cell the
+// most fleet placements cover.
+final class HeatMapStrategy implements ShotStrategy {
+    private final Random random;
+    private final HeatMap heatMap;
+    private final EndgameSolver endgame;
+    private final MonteCarloSearch search;
+    // The installed book's opening line for these rules.
+    private final int[] opening;
+
+    HeatMapStrategy(GameConfig config, EndgameSolver endgame, MonteCarloSearch search, Random random) {
+        this.random = random;
+        this.heatMap = new HeatMap(config);
+        this.endgame = endgame;
+        this.search = search;
+        this.opening = OpeningBook.installed().line(config);
+    }
+
+    @Override
+    public int nextShot(Board target) {
+        int book = openingMove(target);
+        if (book >= 0) {
+            return book;
+        }
+        if (endgame != null) {
+            int cell = endgame.nextShot(target, random);
+            if (cell >= 0) {
+                return cell;
+            }
+        }
+        if (search != null) {
+            int cell = search.nextShot(target, random);
+            if (cell >= 0) {
+                return cell;
+            }
+        }
+        return heatMap.nextShot(target, random);
+    }
+
+    @Override
+    public void onShot(int row, int col, ShotResult result) {
+    }
+
+    @Override
+    public void reset() {
+        heatMap.reset();
+    }
+
+    // Stops a search in progress.
+    @Override
+    public void close() {
+        if (search != null) {
+            search.close();
+        }
+    }
+
+    // The next cell of the opening line, or -1 once the game has left it: after the first hit,
+    // at its end, or if anything but the line's own cells has been shot.
+    private int openingMove(Board target) {
+        if (opening.length == 0 || target.hits.cardinality() != 0) {
+            return -1;
+        }
+        int played = 0;
+        while (played < opening.length && target.misses.get(opening[played])) {
+            played++;
+        }
+        return played < opening.length && target.misses.cardinality() == played ? opening[played] : -1;
+    }
+}
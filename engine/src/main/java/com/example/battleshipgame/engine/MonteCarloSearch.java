@@ -0,0 +1,292 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Samples random fleet layouts consistent with everything known about the target board and
+// shoots the cell that is occupied in the most of them. Sampling is spread over a ForkJoinPool
+// and stops at the time budget, the sample limit or cancel(), whichever comes first.
+final class MonteCarloSearch {
+    private static final int LEAVES_PER_THREAD = 4;
+    // Shared by every search in the process, one thread per core. Its workers are daemons and
+    // exit when idle, so a search dropped without close() leaves no threads behind, and searches
+    // running side by side share the cores instead of each bringing a full set of threads.
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final long budgetNanos;
+    private final int maxSamples;
+    private volatile boolean cancelled;
+
+    MonteCarloSearch(long budgetNanos, int maxSamples) {
+        this.budgetNanos = budgetNanos;
+        this.maxSamples = maxSamples;
+    }
+
+    // Returns the chosen cell, or -1 if no consistent layout was found in time.
+    int nextShot(Board board, Random random) {
+        Knowledge known = new Knowledge(board);
+        int leaves = POOL.getParallelism() * LEAVES_PER_THREAD;
+        long deadline = System.nanoTime() + budgetNanos;
+        int[] counts = POOL.invoke(new SampleTask(known, 0, leaves, leaves, random.nextLong(), deadline));
+        if (counts == null) {
+            return -1;
+        }
+
+        int best = -1;
+        int bestCount = 0;
+        int ties = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] < bestCount || known.shot.get(cell)) continue;
+            if (counts[cell] > bestCount) {
+                bestCount = counts[cell];
+                best = cell;
+                ties = 1;
+            } else if (bestCount > 0 && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    // Stops a search in progress; the shared pool stays up for other searches.
+    void close() {
+        cancel();
+    }
+
+    // Immutable view of the target board as the attacker sees it.
+    private static final class Knowledge {
+        final GameConfig config;
+        final BitGrid shot;
+        final BitGrid hits;
+        final BitGrid blocked;
+        final BitGrid open;
+        final int openCount;
+        // Ships still afloat, largest first.
+        final int[] sizes;
+
+        Knowledge(Board board) {
+            config = board.getConfig();
+            shot = new BitGrid(config.width, config.height);
+            hits = new BitGrid(config.width, config.height);
+            blocked = new BitGrid(config.width, config.height);
+            open = new BitGrid(config.width, config.height);
+            for (int i = 0; i < shot.words.length; i++) {
+                shot.words[i] = board.hits.words[i] | board.misses.words[i];
+                hits.words[i] = board.hits.words[i];
+                open.words[i] = board.hits.words[i] & ~board.sunk.words[i];
+                blocked.words[i] = board.misses.words[i] | board.sunk.words[i];
+            }
+            openCount = open.cardinality();
+            if (config.adjacency == AdjacencyRule.NO_CONTACT) {
+                for (int row = 0; row < config.height; row++) {
+                    for (int col = 0; col < config.width; col++) {
+                        if (open.get(row, col)) blockDiagonals(row, col);
+                    }
+                }
+            }
+
+            int[] sunk = board.sunkBySize.clone();
+            int[] fleet = config.fleet.clone();
+            Arrays.sort(fleet);
+            int[] remaining = new int[fleet.length];
+            int count = 0;
+            for (int i = fleet.length - 1; i >= 0; i--) {
+                if (sunk[fleet[i]] > 0) {
+                    sunk[fleet[i]]--;
+                } else {
+                    remaining[count++] = fleet[i];
+                }
+            }
+            sizes = Arrays.copyOf(remaining, count);
+        }
+
+        private void blockDiagonals(int row, int col) {
+            for (int r = row - 1; r <= row + 1; r += 2) {
+                for (int c = col - 1; c <= col + 1; c += 2) {
+                    if (r >= 0 && r < config.height && c >= 0 && c < config.width) {
+                        blocked.set(r, c);
+                    }
+                }
+            }
+        }
+    }
+
+    private final class SampleTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Knowledge known;
+        private final int from;
+        private final int to;
+        private final int leaves;
+        private final long seed;
+        private final long deadline;
+
+        SampleTask(Knowledge known, int from, int to, int leaves, long seed, long deadline) {
+            this.known = known;
+            this.from = from;
+            this.to = to;
+            this.leaves = leaves;
+            this.seed = seed;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                SampleTask right = new SampleTask(known, mid, to, leaves, seed, deadline);
+                right.fork();
+                int[] left = new SampleTask(known, from, mid, leaves, seed, deadline).compute();
+                return merge(left, right.join());
+            }
+            return new Sampler(known, new SplittableRandom(seed + from)).run((maxSamples + leaves - 1) / leaves, deadline);
+        }
+
+        private int[] merge(int[] left, int[] right) {
+            if (left == null) return right;
+            if (right == null) return left;
+            for (int cell = 0; cell < left.length; cell++) {
+                left[cell] += right[cell];
+            }
+            return left;
+        }
+    }
+
+    // Per-leaf scratch state for drawing layouts.
+    private final class Sampler {
+        private final Knowledge known;
+        private final GameConfig config;
+        private final SplittableRandom random;
+        private final BitGrid forbidden;
+        private final BitGrid uncovered;
+        private final PlacementFinder finder;
+        private final int[] layout;
+        private final boolean[] used;
+        private final int[] candidates;
+
+        Sampler(Knowledge known, SplittableRandom random) {
+            this.known = known;
+            this.config = known.config;
+            this.random = random;
+            this.forbidden = new BitGrid(config.width, config.height);
+            this.uncovered = new BitGrid(config.width, config.height);
+            this.finder = new PlacementFinder(config);
+            this.layout = new int[known.sizes.length];
+            this.used = new boolean[known.sizes.length];
+            int capacity = 0;
+            for (int size : known.sizes) capacity += 2 * size;
+            this.candidates = new int[Math.max(capacity, 1)];
+        }
+
+        int[] run(int quota, long deadline) {
+            int[] counts = new int[config.cells];
+            int accepted = 0;
+            for (int attempt = 0; accepted < quota && !cancelled; attempt++) {
+                if ((attempt & 63) == 0 && System.nanoTime() > deadline) break;
+                if (!sampleLayout()) continue;
+                for (int p : layout) {
+                    for (int i = 0; i < Placements.size(config, p); i++) {
+                        int cell = Placements.cell(config, p, i);
+                        if (!known.shot.get(cell)) {
+                            counts[cell]++;
+                        }
+                    }
+                }
+                accepted++;
+            }
+            return accepted == 0 ? null : counts;
+        }
+
+        // Covers every open hit first, then scatters the rest of the fleet over legal cells.
+        private boolean sampleLayout() {
+            int[] sizes = known.sizes;
+            Arrays.fill(used, false);
+            forbidden.copyFrom(known.blocked);
+            uncovered.copyFrom(known.open);
+            int uncoveredCount = known.openCount;
+
+            for (int placed = 0; placed < sizes.length; placed++) {
+                int p;
+                if (uncoveredCount > 0) {
+                    int hit = firstSet(uncovered);
+                    int row = hit / config.width;
+                    int col = hit % config.width;
+                    int count = 0;
+                    int lastSize = -1;
+                    for (int i = 0; i < sizes.length; i++) {
+                        if (used[i] || sizes[i] == lastSize) continue;
+                        lastSize = sizes[i];
+                        int end = count + Placements.covering(config, lastSize, row, col, candidates, count);
+                        for (int k = count; k < end; k++) {
+                            int origin = Placements.origin(config, candidates[k]);
+                            if (Placements.isClear(forbidden, lastSize, Placements.isVertical(config, candidates[k]),
+                                    origin / config.width, origin % config.width)) {
+                                candidates[count++] = candidates[k];
+                            }
+                        }
+                    }
+                    if (count == 0) return false;
+                    p = candidates[random.nextInt(count)];
+                } else {
+                    int size = sizes[firstUnused()];
+                    int count = finder.count(forbidden, size);
+                    if (count == 0) return false;
+                    p = finder.select(random.nextInt(count));
+                }
+
+                int size = Placements.size(config, p);
+                boolean allHit = true;
+                for (int i = 0; i < size; i++) {
+                    int cell = Placements.cell(config, p, i);
+                    if (!known.hits.get(cell)) {
+                        allHit = false;
+                    } else if (uncovered.get(cell)) {
+                        uncovered.unset(cell / config.width, cell % config.width);
+                        uncoveredCount--;
+                    }
+                }
+                if (allHit) {
+                    // Every cell already hit: that ship would have been reported sunk.
+                    return false;
+                }
+                used[unusedShip(size)] = true;
+                layout[placed] = p;
+                int origin = Placements.origin(config, p);
+                Placements.markZone(forbidden, config.adjacency, size, Placements.isVertical(config, p),
+                        origin / config.width, origin % config.width);
+            }
+            return uncoveredCount == 0;
+        }
+
+        private int firstSet(BitGrid grid) {
+            for (int i = 0; i < grid.words.length; i++) {
+                if (grid.words[i] != 0) {
+                    return (i / grid.stride) * config.width + ((i % grid.stride) << 6)
+                            + Long.numberOfTrailingZeros(grid.words[i]);
+                }
+            }
+            return -1;
+        }
+
+        private int unusedShip(int size) {
+            for (int i = 0; i < known.sizes.length; i++) {
+                if (!used[i] && known.sizes[i] == size) return i;
+            }
+            return -1;
+        }
+
+        private int firstUnused() {
+            for (int i = 0; i < used.length; i++) {
+                if (!used[i]) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.battleshipgame.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+// Append-only record of one game: a header with the seed the fleets were generated from, the
+// opponent and, for non-classic games, the rules; then every accepted shot as a varint cell
+// index, one byte per shot on boards up to 128 cells. Shots are buffered and written in
+// batches; flush() at points where the process may be killed bounds what a crash can lose.
+public final class MoveJournal implements Closeable {
+    static final int VERSION = 1;
+    static final int CUSTOM_RULES = 2;
+    static final int BATCH_MOVES = 32;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BATCH_MOVES * 5);
+    private int pendingMoves;
+
+    private MoveJournal(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // Starts a journal for a game created as new Game(config, new Random(seed)).
+    public static MoveJournal start(WritableByteChannel channel, long seed, GameConfig config, Difficulty difficulty)
+            throws IOException {
+        boolean custom = !config.equals(GameConfig.CLASSIC);
+        ByteBuffer header = ByteBuffer.allocate(10 + (custom ? config.encodedSize() : 0));
+        header.put((byte) VERSION);
+        header.put((byte) ((custom ? CUSTOM_RULES : 0) | difficulty.ordinal() << 2));
+        header.putLong(seed);
+        if (custom) {
+            config.writeTo(header);
+        }
+        header.flip();
+        writeFully(channel, header);
+        return new MoveJournal(channel);
+    }
+
+    // Continues a journal whose header and earlier moves the channel already holds.
+    public static MoveJournal resume(WritableByteChannel channel) {
+        return new MoveJournal(channel);
+    }
+
+    public void append(int cell) throws IOException {
+        while ((cell & ~0x7f) != 0) {
+            buffer.put((byte) (cell & 0x7f | 0x80));
+            cell >>>= 7;
+        }
+        buffer.put((byte) cell);
+        if (++pendingMoves == BATCH_MOVES) {
+            flush();
+        }
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+        pendingMoves = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
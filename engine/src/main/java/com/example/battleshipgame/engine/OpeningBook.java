@@ -0,0 +1,90 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+// Precomputed opening lines, one per rule set: the cells to fire at while every shot so far has
+// missed. Until the first hit nothing is known about the fleet but the misses, so that stretch
+// is the same in every game and is worked out offline by OpeningBookGenerator instead of on
+// every move. Format: magic, version byte, line count (u16), then per line the config as
+// GameConfig.writeTo writes it, the line length (u16) and the cells as ints. Lines are read
+// straight from the buffer, which is typically a memory-mapped asset.
+public final class OpeningBook {
+    static final int MAGIC = 0x42534f42;
+    static final int VERSION = 1;
+    public static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(0), new HashMap<>());
+
+    private static volatile OpeningBook installed = EMPTY;
+
+    private final ByteBuffer data;
+    // Offset of each line's length field.
+    private final Map<GameConfig, Integer> lines;
+
+    private OpeningBook(ByteBuffer data, Map<GameConfig, Integer> lines) {
+        this.data = data;
+        this.lines = lines;
+    }
+
+    // Throws IllegalArgumentException if the data is not a book this version can read.
+    public static OpeningBook read(ByteBuffer data) {
+        ByteBuffer in = data.duplicate();
+        try {
+            if (in.getInt() != MAGIC || in.get() != VERSION) {
+                throw new IllegalArgumentException("Not an opening book");
+            }
+            int count = in.getShort() & 0xffff;
+            Map<GameConfig, Integer> lines = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                GameConfig config = GameConfig.readFrom(in);
+                lines.put(config, in.position());
+                in.position(in.position() + 2 + 4 * (in.getShort(in.position()) & 0xffff));
+            }
+            return new OpeningBook(data.duplicate(), lines);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated opening book", e);
+        }
+    }
+
+    // The book new opponents play from; EMPTY until the app or a tool installs one.
+    public static void install(OpeningBook book) {
+        installed = book;
+    }
+
+    public static OpeningBook installed() {
+        return installed;
+    }
+
+    // The opening line for the rules, empty if the book has none.
+    public int[] line(GameConfig config) {
+        Integer offset = lines.get(config);
+        if (offset == null) {
+            return new int[0];
+        }
+        int[] cells = new int[data.getShort(offset) & 0xffff];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = data.getInt(offset + 2 + 4 * i);
+        }
+        return cells;
+    }
+
+    public static byte[] write(Map<GameConfig, int[]> lines) {
+        int size = 4 + 1 + 2;
+        for (Map.Entry<GameConfig, int[]> line : lines.entrySet()) {
+            size += line.getKey().encodedSize() + 2 + 4 * line.getValue().length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC);
+        out.put((byte) VERSION);
+        out.putShort((short) lines.size());
+        for (Map.Entry<GameConfig, int[]> line : lines.entrySet()) {
+            line.getKey().writeTo(out);
+            out.putShort((short) line.getValue().length);
+            for (int cell : line.getValue()) {
+                out.putInt(cell);
+            }
+        }
+        return out.array();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Random;
+
+// The AI opponent of a given difficulty: the strategy Strategies.forDifficulty builds for it,
+// plus what GameSnapshot needs to save and restore it.
+public final class Opponent implements ShotStrategy {
+    private final Difficulty difficulty;
+    private final ShotStrategy strategy;
+
+    public Opponent(Difficulty difficulty, Random random) {
+        this(difficulty, GameConfig.CLASSIC, random);
+    }
+
+    public Opponent(Difficulty difficulty, GameConfig config, Random random) {
+        this.difficulty = difficulty;
+        this.strategy = Strategies.forDifficulty(difficulty, config, random);
+    }
+
+    // Returns the cell (row * width + col) to attack on the given board next. EXPERT blocks
+    // for up to its search budget, so callers must not invoke it on the UI thread.
+    @Override
+    public int nextShot(Board target) {
+        return strategy.nextShot(target);
+    }
+
+    @Override
+    public void onShot(int row, int col, ShotResult result) {
+        strategy.onShot(row, col, result);
+    }
+
+    // Forgets everything learned about the previous target board, for the next game.
+    @Override
+    public void reset() {
+        strategy.reset();
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    // The last hit NORMAL probes around, as a cell, or -1 before the first hit.
+    int getLastHit(Board target) {
+        return strategy instanceof ProbingStrategy ? ((ProbingStrategy) strategy).getLastHit(target) : -1;
+    }
+
+    void restoreLastHit(Board target, int cell) {
+        if (strategy instanceof ProbingStrategy) {
+            ((ProbingStrategy) strategy).restoreLastHit(target, cell);
+        }
+    }
+
+    public boolean isBlocking() {
+        return difficulty == Difficulty.EXPERT;
+    }
+
+    // Stops a search in progress.
+    @Override
+    public void close() {
+        strategy.close();
+    }
+}
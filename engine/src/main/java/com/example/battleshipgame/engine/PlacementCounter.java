@@ -0,0 +1,131 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Arrays;
+
+// Counts, for every cell, the placements of one ship size that cover it and lie wholly on free
+// cells, 64 cells at a time instead of one placement at a time. Origins come from shift-and-AND
+// runs over the free rows (a run of n free cells ANDed with itself shifted by n gives runs of
+// 2n), and each row's coverage is summed in bit-sliced counters: plane k holds bit k of every
+// cell's count, so adding a mask of covered cells is a ripple of ANDs and XORs, and the counts
+// are read out by walking the set bits of each plane. Not thread-safe; no allocation per count.
+final class PlacementCounter {
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final int planeCount;
+    // Origins of the legal placements found by the last count.
+    final BitGrid horizontal;
+    final BitGrid vertical;
+    // planes[k * stride + w]: bit k of the count of every cell in word w of the current row.
+    private final long[] planes;
+
+    PlacementCounter(int width, int height, int maxShipSize) {
+        this.width = width;
+        this.height = height;
+        this.horizontal = new BitGrid(width, height);
+        this.vertical = new BitGrid(width, height);
+        this.stride = horizontal.stride;
+        // A cell is covered by at most size placements per orientation.
+        this.planeCount = 32 - Integer.numberOfLeadingZeros(2 * maxShipSize);
+        this.planes = new long[planeCount * stride];
+    }
+
+    // Overwrites counts (one per cell) with the number of placements of the given size, both
+    // orientations, that cover each cell and touch only cells set in free.
+    void count(BitGrid free, int size, int[] counts) {
+        findOrigins(free, size);
+        for (int row = 0; row < height; row++) {
+            Arrays.fill(planes, 0);
+            int base = row * stride;
+            for (int i = 0; i < size; i++) {
+                for (int w = 0; w < stride; w++) {
+                    add(w, shiftedUp(horizontal.words, base, w, i));
+                }
+                if (i <= row) {
+                    for (int w = 0; w < stride; w++) {
+                        add(w, vertical.words[base - i * stride + w]);
+                    }
+                }
+            }
+            int cellBase = row * width;
+            Arrays.fill(counts, cellBase, cellBase + width, 0);
+            for (int k = 0; k < planeCount; k++) {
+                for (int w = 0; w < stride; w++) {
+                    for (long bits = planes[k * stride + w]; bits != 0; bits &= bits - 1) {
+                        counts[cellBase + (w << 6) + Long.numberOfTrailingZeros(bits)] += 1 << k;
+                    }
+                }
+            }
+        }
+    }
+
+    // The cell-by-cell loop count replaces, kept as the reference it is tested and benchmarked
+    // against.
+    static void countScalar(BitGrid free, int size, int[] counts) {
+        int width = free.width;
+        Arrays.fill(counts, 0, width * free.height, 0);
+        for (int vertical = 0; vertical < 2; vertical++) {
+            int step = vertical == 1 ? width : 1;
+            for (int row = 0; row < free.height; row++) {
+                for (int col = 0; col < width; col++) {
+                    if (vertical == 1 ? row + size > free.height : col + size > width) continue;
+                    int origin = row * width + col;
+                    boolean fits = true;
+                    for (int i = 0; i < size && fits; i++) {
+                        fits = free.get(origin + i * step);
+                    }
+                    if (!fits) continue;
+                    for (int i = 0; i < size; i++) {
+                        counts[origin + i * step]++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void findOrigins(BitGrid free, int size) {
+        horizontal.copyFrom(free);
+        vertical.copyFrom(free);
+        // Each pass turns "starts a free run of length" into "starts a free run of length + step".
+        for (int length = 1; length < size; ) {
+            int step = Math.min(length, size - length);
+            for (int row = 0; row < height; row++) {
+                int base = row * stride;
+                // Ascending, so every word read to the right is still the previous pass's.
+                for (int w = 0; w < stride; w++) {
+                    horizontal.words[base + w] &= shiftedDown(horizontal.words, base, w, step);
+                }
+                for (int w = 0; w < stride; w++) {
+                    vertical.words[base + w] &= row + step < height ? vertical.words[base + step * stride + w] : 0;
+                }
+            }
+            length += step;
+        }
+    }
+
+    private void add(int w, long bits) {
+        for (int k = w; bits != 0 && k < planes.length; k += stride) {
+            long carry = planes[k] & bits;
+            planes[k] ^= bits;
+            bits = carry;
+        }
+    }
+
+    // Word w of the row at base with every cell moved shift columns left (towards column 0).
+    private long shiftedDown(long[] words, int base, int w, int shift) {
+        int from = w + (shift >>> 6);
+        int bits = shift & 63;
+        long low = from < stride ? words[base + from] >>> bits : 0;
+        long high = bits != 0 && from + 1 < stride ? words[base + from + 1] << (64 - bits) : 0;
+        return low | high;
+    }
+
+    // Word w of the row at base with every cell moved shift columns right.
+    private long shiftedUp(long[] words, int base, int w, int shift) {
+        int from = w - (shift >>> 6);
+        int bits = shift & 63;
+        long high = from >= 0 ? words[base + from] << bits : 0;
+        long low = bits != 0 && from - 1 >= 0 ? words[base + from - 1] >>> (64 - bits) : 0;
+        return high | low;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.battleshipgame.engine;
+
+// Finds every legal placement of one ship size at once. For each row the free cells are a
+// bitmask; AND-ing it with itself shifted by one, size - 1 times, leaves the cells that start a
+// horizontal run of free cells, and AND-ing size consecutive rows gives the vertical starts.
+// count() fills those start masks, select() then picks the k-th start without a candidate list.
+// Holds scratch state, so each thread needs its own instance.
+final class PlacementFinder {
+    private final GameConfig config;
+    private final int stride;
+    private final long[] horizontal;
+    private final long[] vertical;
+    private int size;
+
+    PlacementFinder(GameConfig config) {
+        this.config = config;
+        this.stride = (config.width + 63) >>> 6;
+        this.horizontal = new long[config.height * stride];
+        this.vertical = new long[config.height * stride];
+    }
+
+    // Number of legal placements (both orientations) for a ship of the given size.
+    int count(BitGrid forbidden, int size) {
+        this.size = size;
+        long[] taken = forbidden.words;
+        int count = 0;
+
+        for (int row = 0; row < config.height; row++) {
+            int base = row * stride;
+            for (int w = 0; w < stride; w++) {
+                horizontal[base + w] = ~taken[base + w] & forbidden.validMask(w);
+            }
+            for (int step = 1; step < size; step++) {
+                for (int w = 0; w < stride; w++) {
+                    long next = w + 1 < stride ? horizontal[base + w + 1] : 0;
+                    horizontal[base + w] &= (horizontal[base + w] >>> 1) | (next << 63);
+                }
+            }
+            for (int w = 0; w < stride; w++) {
+                count += Long.bitCount(horizontal[base + w]);
+            }
+        }
+
+        for (int row = 0; row < config.height; row++) {
+            int base = row * stride;
+            for (int w = 0; w < stride; w++) {
+                long free = 0;
+                if (row + size <= config.height) {
+                    free = forbidden.validMask(w);
+                    for (int r = row; r < row + size && free != 0; r++) {
+                        free &= ~taken[r * stride + w];
+                    }
+                }
+                vertical[base + w] = free;
+                count += Long.bitCount(free);
+            }
+        }
+        return count;
+    }
+
+    // The k-th (0-based) placement counted by the last call to count().
+    int select(int k) {
+        for (int orientation = 0; orientation < 2; orientation++) {
+            long[] starts = orientation == 0 ? horizontal : vertical;
+            for (int i = 0; i < starts.length; i++) {
+                int bits = Long.bitCount(starts[i]);
+                if (k >= bits) {
+                    k -= bits;
+                    continue;
+                }
+                long word = starts[i];
+                for (; k > 0; k--) {
+                    word &= word - 1;
+                }
+                int row = i / stride;
+                int col = ((i % stride) << 6) + Long.numberOfTrailingZeros(word);
+                return Placements.index(config, size, orientation == 1, row, col);
+            }
+        }
+        throw new IllegalArgumentException("No placement with that index");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.battleshipgame.engine;
+
+// A placement is one (size, orientation, origin) a ship can take, packed into an int as
+// ((size << 1) | vertical) * cells + origin. Nothing is precomputed per placement, so the
+// encoding works the same on a 10x10 board and a 1000x1000 one.
+final class Placements {
+
+    private Placements() {
+    }
+
+    static int count(GameConfig config) {
+        return (config.maxShipSize + 1) * 2 * config.cells;
+    }
+
+    static int index(GameConfig config, int size, boolean isVertical, int row, int col) {
+        return ((size << 1) | (isVertical ? 1 : 0)) * config.cells + row * config.width + col;
+    }
+
+    static int size(GameConfig config, int placement) {
+        return placement / config.cells >> 1;
+    }
+
+    static boolean isVertical(GameConfig config, int placement) {
+        return (placement / config.cells & 1) != 0;
+    }
+
+    static int origin(GameConfig config, int placement) {
+        return placement % config.cells;
+    }
+
+    // The i-th cell of the placement's footprint.
+    static int cell(GameConfig config, int placement, int i) {
+        return origin(config, placement) + (isVertical(config, placement) ? i * config.width : i);
+    }
+
+    static boolean fits(GameConfig config, int size, boolean isVertical, int row, int col) {
+        return row >= 0 && col >= 0
+                && (isVertical ? row + size <= config.height && col < config.width
+                               : col + size <= config.width && row < config.height);
+    }
+
+    static boolean fits(GameConfig config, int placement) {
+        int origin = origin(config, placement);
+        return fits(config, size(config, placement), isVertical(config, placement),
+                origin / config.width, origin % config.width);
+    }
+
+    // Writes the placements of the given size whose footprint contains (row, col) into out,
+    // starting at offset, and returns how many there were (at most 2 * size).
+    static int covering(GameConfig config, int size, int row, int col, int[] out, int offset) {
+        int count = offset;
+        for (int c = Math.max(col - size + 1, 0); c <= Math.min(col, config.width - size); c++) {
+            out[count++] = index(config, size, false, row, c);
+        }
+        for (int r = Math.max(row - size + 1, 0); r <= Math.min(row, config.height - size); r++) {
+            out[count++] = index(config, size, true, r, col);
+        }
+        return count - offset;
+    }
+
+    // True if none of the footprint's cells are set in the grid.
+    static boolean isClear(BitGrid grid, int size, boolean isVertical, int row, int col) {
+        return isVertical ? grid.isColumnRangeClear(row, col, size) : grid.isRowRangeClear(row, col, size);
+    }
+
+    // Sets the footprint and every cell the adjacency rule keeps other ships out of.
+    static void markZone(BitGrid grid, AdjacencyRule rule, int size, boolean isVertical, int row, int col) {
+        int lastRow = isVertical ? row + size - 1 : row;
+        int lastCol = isVertical ? col : col + size - 1;
+        if (rule == AdjacencyRule.TOUCHING_ALLOWED) {
+            for (int r = row; r <= lastRow; r++) grid.setRowRange(r, col, lastCol - col + 1);
+            return;
+        }
+        int fromCol = Math.max(col - 1, 0);
+        int toCol = Math.min(lastCol + 1, grid.width - 1);
+        for (int r = Math.max(row - 1, 0); r <= Math.min(lastRow + 1, grid.height - 1); r++) {
+            boolean isEndRow = r < row || r > lastRow;
+            if (rule == AdjacencyRule.NO_EDGE_CONTACT && isEndRow) {
+                // Leave out the corner cells.
+                grid.setRowRange(r, col, lastCol - col + 1);
+            } else {
+                grid.setRowRange(r, fromCol, toCol - fromCol + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Random;
+
+// NORMAL: shoots at random until a hit, then tries the cells above and below, left and right of
+// the last hit. The endgame solver takes over once few enough ships remain.
+final class ProbingStrategy implements ShotStrategy {
+    private static final int[] DIRECTIONS = {-1, 1};
+
+    private final Random random;
+    private final EndgameSolver endgame;
+    private int lastHitRow = -1;
+    private int lastHitCol = -1;
+
+    ProbingStrategy(EndgameSolver endgame, Random random) {
+        this.endgame = endgame;
+        this.random = random;
+    }
+
+    @Override
+    public int nextShot(Board target) {
+        int cell = endgame.nextShot(target, random);
+        if (cell >= 0) {
+            return cell;
+        }
+        if (lastHitRow != -1 && lastHitCol != -1) {
+            for (int dir : DIRECTIONS) {
+                if (isValidMove(target, lastHitRow + dir, lastHitCol)) {
+                    return target.cell(lastHitRow + dir, lastHitCol);
+                }
+                if (isValidMove(target, lastHitRow, lastHitCol + dir)) {
+                    return target.cell(lastHitRow, lastHitCol + dir);
+                }
+            }
+        }
+        return RandomStrategy.anyUnshot(target, random);
+    }
+
+    @Override
+    public void onShot(int row, int col, ShotResult result) {
+        if (result.isHit()) {
+            lastHitRow = row;
+            lastHitCol = col;
+        }
+    }
+
+    @Override
+    public void reset() {
+        lastHitRow = -1;
+        lastHitCol = -1;
+    }
+
+    // The last hit probed around, as a cell, or -1 before the first hit.
+    int getLastHit(Board target) {
+        return lastHitRow == -1 ? -1 : target.cell(lastHitRow, lastHitCol);
+    }
+
+    void restoreLastHit(Board target, int cell) {
+        lastHitRow = cell == -1 ? -1 : cell / target.getWidth();
+        lastHitCol = cell == -1 ? -1 : cell % target.getWidth();
+    }
+
+    private static boolean isValidMove(Board target, int row, int col) {
+        if (row < 0 || row >= target.getHeight() || col < 0 || col >= target.getWidth()) {
+            return false;
+        }
+        return !target.isShot(row, col);
+    }
+}
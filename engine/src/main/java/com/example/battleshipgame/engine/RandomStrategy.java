@@ -0,0 +1,36 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Random;
+
+// EASY: shoots at random unshot cells and learns nothing from hits.
+final class RandomStrategy implements ShotStrategy {
+    private final Random random;
+
+    RandomStrategy(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextShot(Board target) {
+        return anyUnshot(target, random);
+    }
+
+    @Override
+    public void onShot(int row, int col, ShotResult result) {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    // The fallback of every strategy once it has nothing better to go on.
+    static int anyUnshot(Board target, Random random) {
+        int row;
+        int col;
+        do {
+            row = random.nextInt(target.getHeight());
+            col = random.nextInt(target.getWidth());
+        } while (target.isShot(row, col));
+        return target.cell(row, col);
+    }
+}
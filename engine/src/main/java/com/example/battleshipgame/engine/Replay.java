@@ -0,0 +1,114 @@
+package com.example.battleshipgame.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+// Rebuilds a journaled game: the fleets are regenerated from the seed and the recorded shots
+// are fired through Game.fire, the same rules a live game runs. A GameSnapshot is kept every
+// SNAPSHOT_INTERVAL moves, so seek() replays at most that many shots. A move cut off by a
+// crash mid-write ends the journal.
+public final class Replay {
+    static final int SNAPSHOT_INTERVAL = 32;
+
+    private final long seed;
+    private final GameConfig config;
+    private final Difficulty difficulty;
+    private final int[] moves;
+    private final byte[][] snapshots;
+
+    // Throws IllegalArgumentException if the journal is unreadable or does not match its seed.
+    public Replay(ByteBuffer journal) {
+        try {
+            if (journal.get() != MoveJournal.VERSION) {
+                throw new IllegalArgumentException("Unsupported journal version");
+            }
+            int flags = journal.get() & 0xff;
+            difficulty = Difficulty.values()[flags >>> 2];
+            seed = journal.getLong();
+            config = (flags & MoveJournal.CUSTOM_RULES) != 0 ? GameConfig.readFrom(journal) : GameConfig.CLASSIC;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated journal header", e);
+        }
+        moves = readMoves(journal);
+
+        Game game = newGame();
+        snapshots = new byte[moves.length / SNAPSHOT_INTERVAL + 1][];
+        snapshots[0] = GameSnapshot.toBytes(game, null);
+        for (int i = 0; i < moves.length; i++) {
+            fire(game, moves[i], i);
+            if ((i + 1) % SNAPSHOT_INTERVAL == 0) {
+                snapshots[(i + 1) / SNAPSHOT_INTERVAL] = GameSnapshot.toBytes(game, null);
+            }
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    // The cell fired at by the given move (0-based).
+    public int getMove(int move) {
+        return moves[move];
+    }
+
+    // A fresh game in the state right after the given number of moves.
+    public Game seek(int move) {
+        if (move < 0 || move > moves.length) {
+            throw new IndexOutOfBoundsException("Move " + move + " of " + moves.length);
+        }
+        int from = move / SNAPSHOT_INTERVAL * SNAPSHOT_INTERVAL;
+        Game game = GameSnapshot.readGame(ByteBuffer.wrap(snapshots[from / SNAPSHOT_INTERVAL]));
+        for (int i = from; i < move; i++) {
+            fire(game, moves[i], i);
+        }
+        return game;
+    }
+
+    private Game newGame() {
+        return new Game(config, new Random(seed));
+    }
+
+    private void fire(Game game, int cell, int move) {
+        if (cell >= config.cells || game.fire(cell / config.width, cell % config.width) == ShotResult.REPEAT) {
+            throw new IllegalArgumentException("Move " + move + " at cell " + cell + " is not legal");
+        }
+    }
+
+    private static int[] readMoves(ByteBuffer in) {
+        int[] moves = new int[Math.max(16, in.remaining())];
+        int count = 0;
+        while (in.hasRemaining()) {
+            int cell = 0;
+            int shift = 0;
+            boolean complete = false;
+            while (in.hasRemaining() && shift < 32) {
+                int b = in.get();
+                cell |= (b & 0x7f) << shift;
+                shift += 7;
+                if ((b & 0x80) == 0) {
+                    complete = true;
+                    break;
+                }
+            }
+            if (!complete) {
+                break;
+            }
+            moves[count++] = cell;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.battleshipgame.engine;
+
+// Ships built with the constructor never change. Ships a board lays out itself, through
+// Fleet.generateShips, belong to that board and are moved to new cells when it is reset for the
+// next game, so a long session does not allocate a fleet per game; copy one to keep it longer.
+public final class Ship {
+    private int size;
+    private int row;
+    private int col;
+    private boolean isVertical;
+
+    public Ship(int size, int row, int col, boolean isVertical) {
+        moveTo(size, row, col, isVertical);
+    }
+
+    Ship moveTo(int size, int row, int col, boolean isVertical) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Ship size must be positive: " + size);
+        }
+        this.size = size;
+        this.row = row;
+        this.col = col;
+        this.isVertical = isVertical;
+        return this;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public boolean isVertical() {
+        return isVertical;
+    }
+
+    public int getLastRow() {
+        return isVertical ? row + size - 1 : row;
+    }
+
+    public int getLastCol() {
+        return isVertical ? col : col + size - 1;
+    }
+
+    public boolean contains(int row, int col) {
+        return row >= this.row && row <= getLastRow() && col >= this.col && col <= getLastCol();
+    }
+}
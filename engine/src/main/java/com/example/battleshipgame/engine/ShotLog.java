@@ -0,0 +1,34 @@
+package com.example.battleshipgame.engine;
+
+import java.util.Arrays;
+
+// The shots fired at one board and the result each was answered with, packed one int per
+// shot (cell << 2 | result ordinal), kept so the answers can be checked once the fleet is
+// revealed.
+public final class ShotLog {
+    private int[] entries = new int[64];
+    private int size;
+
+    public void record(int cell, ShotResult result) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = cell << 2 | result.ordinal();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int cell(int i) {
+        return entries[i] >>> 2;
+    }
+
+    public ShotResult result(int i) {
+        return ShotResult.values()[entries[i] & 3];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
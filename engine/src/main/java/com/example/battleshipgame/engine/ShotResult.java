@@ -0,0 +1,12 @@
+package com.example.battleshipgame.engine;
+
+public enum ShotResult {
+    MISS,
+    HIT,
+    SUNK,
+    REPEAT;
+
+    public boolean isHit() {
+        return this == HIT || this == SUNK;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.battleshipgame.engine;
+
+// How an AI picks its shots at one target board. The caller fires every shot it gets from
+// nextShot and reports the result through onShot before asking again; reset starts over on a
+// fresh board. Implementations need not be thread-safe.
+public interface ShotStrategy {
+    // Returns an unshot cell (row * width + col) of target. May block for a strategy that
+    // searches, so callers must not invoke it on the UI thread.
+    int nextShot(Board target);
+
+    void onShot(int row, int col, ShotResult result);
+
+    // Forgets everything learned about the previous target board, for the next game.
+    void reset();
+
+    // Stops any work in progress; the strategy is not used afterwards.
+    default void close() {
+    }
+}
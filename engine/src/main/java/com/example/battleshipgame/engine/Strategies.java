@@ -0,0 +1,88 @@
+package com.example.battleshipgame.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+// The AI strategies by name: one per Difficulty ("easy", "normal", "hard", "expert") plus any
+// registered since, so a new AI can be played in the simulator tournament before it gets a
+// Difficulty of its own.
+public final class Strategies {
+    private static final long EXPERT_BUDGET_NANOS = 300_000_000L;
+    private static final int EXPERT_SAMPLES = 20_000;
+    // NORMAL and EXPERT hand over to the endgame solver once this few ships are afloat and this
+    // few fleet layouts fit what has been seen; it gives up on a move after this long. Other
+    // limits can be played through withEndgame.
+    public static final int ENDGAME_SHIPS = 2;
+    public static final int ENDGAME_LAYOUTS = 10;
+    public static final long ENDGAME_BUDGET_NANOS = 20_000_000L;
+
+    public interface Factory {
+        ShotStrategy create(GameConfig config, Random random);
+    }
+
+    private static final Map<String, Factory> FACTORIES = new LinkedHashMap<>();
+
+    static {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty != Difficulty.MULTIPLAYER) {
+                register(difficulty.name().toLowerCase(Locale.ROOT),
+                        (config, random) -> forDifficulty(difficulty, config, random));
+            }
+        }
+    }
+
+    private Strategies() {
+    }
+
+    // Replaces any strategy registered under the same name.
+    public static synchronized void register(String name, Factory factory) {
+        FACTORIES.put(name.toLowerCase(Locale.ROOT), factory);
+    }
+
+    // In registration order, the built-in ones first.
+    public static synchronized List<String> names() {
+        return new ArrayList<>(FACTORIES.keySet());
+    }
+
+    // Throws IllegalArgumentException for a name nothing is registered under.
+    public static ShotStrategy create(String name, GameConfig config, Random random) {
+        Factory factory;
+        synchronized (Strategies.class) {
+            factory = FACTORIES.get(name.toLowerCase(Locale.ROOT));
+        }
+        if (factory == null) {
+            throw new IllegalArgumentException("No strategy named " + name);
+        }
+        return factory.create(config, random);
+    }
+
+    // The strategy of a Difficulty with other endgame solver limits, to register under a name of
+    // its own or in place of the built-in one. Only NORMAL and EXPERT use the solver.
+    public static Factory withEndgame(Difficulty difficulty, int maxShips, int maxLayouts, long budgetNanos) {
+        EndgameSolver.checkLimits(maxShips, maxLayouts, budgetNanos);
+        return (config, random) -> forDifficulty(difficulty, config, random, maxShips, maxLayouts, budgetNanos);
+    }
+
+    static ShotStrategy forDifficulty(Difficulty difficulty, GameConfig config, Random random) {
+        return forDifficulty(difficulty, config, random, ENDGAME_SHIPS, ENDGAME_LAYOUTS, ENDGAME_BUDGET_NANOS);
+    }
+
+    private static ShotStrategy forDifficulty(Difficulty difficulty, GameConfig config, Random random,
+                                              int maxShips, int maxLayouts, long budgetNanos) {
+        switch (difficulty) {
+            case NORMAL:
+                return new ProbingStrategy(new EndgameSolver(config, maxShips, maxLayouts, budgetNanos), random);
+            case HARD:
+                return new HeatMapStrategy(config, null, null, random);
+            case EXPERT:
+                return new HeatMapStrategy(config, new EndgameSolver(config, maxShips, maxLayouts, budgetNanos),
+                        new MonteCarloSearch(EXPERT_BUDGET_NANOS, EXPERT_SAMPLES), random);
+            default:
+                return new RandomStrategy(random);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.battleshipgame.engine.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class Counter {
+    private final String name;
+    private final AtomicLong count = new AtomicLong();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (Metrics.enabled) {
+            count.incrementAndGet();
+        }
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    void clear() {
+        count.set(0);
+    }
+}
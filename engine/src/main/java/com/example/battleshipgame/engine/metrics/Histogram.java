@@ -0,0 +1,74 @@
+package com.example.battleshipgame.engine.metrics;
+
+import java.util.Arrays;
+
+// Log-linear histogram of non-negative values (microseconds, by convention): 16 linear buckets
+// per power of two, so any recorded value is off by at most 1/16 of itself. Fixed size, no
+// allocation when recording. Not thread-safe: keep one per thread and merge, or guard it.
+public final class Histogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    public void record(long value) {
+        counts[index(Math.max(value, 0))]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    public void merge(Histogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    // Upper bound of the bucket holding the given percentile.
+    public long percentile(double percentile) {
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.battleshipgame.engine.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Process-wide registry of timers and counters. Instruments are created once, typically into
+// static final fields, and cost next to nothing until setEnabled(true). Recording never
+// allocates: timers fill fixed-size histograms and counters are atomic longs.
+public final class Metrics {
+    static volatile boolean enabled;
+
+    private static final List<Timer> timers = new ArrayList<>();
+    private static final List<Counter> counters = new ArrayList<>();
+
+    private Metrics() {
+    }
+
+    public static synchronized Timer timer(String name) {
+        Timer timer = new Timer(name);
+        timers.add(timer);
+        return timer;
+    }
+
+    public static synchronized Counter counter(String name) {
+        Counter counter = new Counter(name);
+        counters.add(counter);
+        return counter;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    public static synchronized void reset() {
+        for (Timer timer : timers) timer.clear();
+        for (Counter counter : counters) counter.clear();
+    }
+
+    // One line per instrument: "name  n=.. p50=.. p99=.. max=..us" or "name  n".
+    public static synchronized String summary() {
+        StringBuilder out = new StringBuilder();
+        for (Timer timer : timers) {
+            Histogram h = timer.snapshot();
+            if (h.count() == 0) continue;
+            out.append(String.format(Locale.ROOT, "%s  n=%d p50=%d p99=%d max=%dus%n", timer.getName(), h.count(),
+                    h.percentile(50), h.percentile(99), h.max()));
+        }
+        for (Counter counter : counters) {
+            out.append(counter.getName()).append("  ").append(counter.get()).append('\n');
+        }
+        return out.toString();
+    }
+
+    // {"timers": {"name": {"count": .., "p50": .., "p90": .., "p99": .., "max": ..}}, "counters": {"name": ..}}
+    // with times in microseconds.
+    public static synchronized void writeJson(Appendable out) throws IOException {
+        out.append("{\"timers\":{");
+        for (int i = 0; i < timers.size(); i++) {
+            Histogram h = timers.get(i).snapshot();
+            out.append(i == 0 ? "" : ",").append('"').append(timers.get(i).getName()).append("\":")
+                    .append(String.format(Locale.ROOT, "{\"count\":%d,\"p50\":%d,\"p90\":%d,\"p99\":%d,\"max\":%d}",
+                            h.count(), h.percentile(50), h.percentile(90), h.percentile(99), h.max()));
+        }
+        out.append("},\"counters\":{");
+        for (int i = 0; i < counters.size(); i++) {
+            out.append(i == 0 ? "" : ",").append('"').append(counters.get(i).getName()).append("\":")
+                    .append(Long.toString(counters.get(i).get()));
+        }
+        out.append("}}");
+    }
+}
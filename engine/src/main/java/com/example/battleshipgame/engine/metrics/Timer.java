@@ -0,0 +1,54 @@
+package com.example.battleshipgame.engine.metrics;
+
+// Times a code path into a histogram of microseconds:
+//
+//     long startedAt = TIMER.start();
+//     ...
+//     TIMER.stop(startedAt);
+//
+// While metrics are disabled start() returns 0 without reading the clock and stop(0) does
+// nothing, so an instrumented path costs one volatile read.
+public final class Timer {
+    private final String name;
+    private final Histogram histogram = new Histogram();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return Metrics.enabled ? System.nanoTime() : 0;
+    }
+
+    public void stop(long startedAt) {
+        if (startedAt != 0) {
+            record((System.nanoTime() - startedAt) / 1000);
+        }
+    }
+
+    // Records a duration measured elsewhere, such as a frame interval.
+    public void record(long micros) {
+        synchronized (histogram) {
+            histogram.record(micros);
+        }
+    }
+
+    // A copy of what has been recorded so far.
+    public Histogram snapshot() {
+        Histogram copy = new Histogram();
+        synchronized (histogram) {
+            copy.merge(histogram);
+        }
+        return copy;
+    }
+
+    void clear() {
+        synchronized (histogram) {
+            histogram.clear();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.battleshipgame.engine.net;
+
+// Reassembles a COMMIT or REVEAL blob from its frames. The receiver always knows how long the
+// blob must be, so a first frame announcing any other length is refused before anything is
+// allocated for it, and so is a data frame with no blob started.
+final class BlobBuffer {
+    private byte[] data;
+    private int offset;
+
+    // False if the frame does not belong to a blob of the expected length.
+    boolean add(int expectedLength, int flags, int value, int cell) {
+        if (flags == Protocol.BLOB_START) {
+            if (cell != expectedLength) {
+                data = null;
+                return false;
+            }
+            data = new byte[expectedLength];
+            offset = 0;
+            return true;
+        }
+        if (data == null || offset >= data.length) {
+            return false;
+        }
+        Protocol.unpackBlob(data, offset, value, cell);
+        offset += Protocol.BLOB_CHUNK;
+        return true;
+    }
+
+    boolean isComplete() {
+        return data != null && offset >= data.length;
+    }
+
+    // The finished blob; the buffer is then ready for the next one.
+    byte[] take() {
+        byte[] blob = data;
+        data = null;
+        return blob;
+    }
+}
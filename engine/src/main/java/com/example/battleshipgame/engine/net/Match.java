@@ -0,0 +1,258 @@
+package com.example.battleshipgame.engine.net;
+
+import com.example.battleshipgame.engine.AttackResult;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.FleetCommitment;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.Ship;
+import com.example.battleshipgame.engine.ShotLog;
+import com.example.battleshipgame.engine.ShotResult;
+
+// The server-side rules of one match, independent of how frames travel. Each client lays out
+// its own fleet and commits to it before the first shot, so neither the server nor whoever
+// hosts it sees a layout before the game is over. A shot is relayed to the defender and its
+// ANSWER kept on a view board that holds only what was answered, which is enough to turn away
+// repeated shots and sunk ships no legal fleet could have. Every answer is logged and replayed
+// against the defender's opening once the game is over, here and by the opponent's client. A
+// side whose opening or answers do not check out, or who breaks the protocol, loses. Not
+// thread-safe: a match belongs to exactly one event loop.
+public final class Match {
+
+    public interface FrameSink {
+        void send(int side, byte type, int flags, int value, int cell);
+    }
+
+    private enum Phase { COMMITTING, PLAYING, REVEALING, OVER }
+
+    private final GameConfig config;
+    // What each side has answered about its own board.
+    private final Board[] views;
+    private final ShotLog[] logs = {new ShotLog(), new ShotLog()};
+    private final int[] shotCells = new int[2];
+    private final BlobBuffer[] blobs = {new BlobBuffer(), new BlobBuffer()};
+    private final byte[][] commitments = new byte[2][];
+    private final byte[][] openings = new byte[2][];
+    private final boolean[] cheated = new boolean[2];
+    private Phase phase = Phase.COMMITTING;
+    private int turn;
+    // The shot waiting for the defender's ANSWER, or -1.
+    private int pendingCell = -1;
+    private int pendingSeq;
+    private boolean awaitingShip;
+    private int winner = -1;
+
+    public Match(GameConfig config) {
+        this.config = config;
+        this.views = new Board[]{new Board(config), new Board(config)};
+    }
+
+    public boolean isOver() {
+        return phase == Phase.OVER;
+    }
+
+    // True once a side was caught with answers its fleet does not back, or broke the protocol.
+    public boolean isDisputed() {
+        return cheated[0] || cheated[1];
+    }
+
+    // The side that won, or -1 while the match runs or if both sides were caught cheating.
+    public int getWinner() {
+        return phase == Phase.OVER ? winner : -1;
+    }
+
+    // Tells each side the rules and the fleet it has to lay out.
+    public void start(FrameSink out) {
+        int[] fleet = config.getFleet();
+        for (int side = 0; side < 2; side++) {
+            out.send(side, Protocol.WELCOME, side | config.getAdjacency().ordinal() << 1, config.getWidth(), config.getHeight());
+            for (int i = 0; i < fleet.length; ) {
+                int run = 1;
+                while (i + run < fleet.length && fleet[i + run] == fleet[i]) run++;
+                i += run;
+                out.send(side, Protocol.FLEET, i == fleet.length ? Protocol.LAST : 0, fleet[i - run], run);
+            }
+        }
+    }
+
+    public void onFrame(int side, byte type, int flags, int value, int cell, FrameSink out) {
+        switch (phase) {
+            case COMMITTING:
+                if (type == Protocol.COMMIT) {
+                    onCommit(side, flags, value, cell, out);
+                } else if (type == Protocol.SHOT) {
+                    out.send(side, Protocol.RESULT, ShotResult.REPEAT.ordinal(), value, cell);
+                } else {
+                    forfeit(side, out);
+                }
+                break;
+            case PLAYING:
+                if (type == Protocol.SHOT) {
+                    onShot(side, value, cell, out);
+                } else if (type == Protocol.ANSWER && side != turn && pendingCell != -1 && !awaitingShip) {
+                    onAnswer(side, flags, cell, out);
+                } else if (type == Protocol.SHIP && side != turn && awaitingShip) {
+                    onSunkShip(side, flags, value, cell, out);
+                } else {
+                    forfeit(side, out);
+                }
+                break;
+            case REVEALING:
+                if (type == Protocol.REVEAL && openings[side] == null) {
+                    onReveal(side, flags, value, cell, out);
+                } else if (type != Protocol.SHOT) {
+                    forfeit(side, out);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onCommit(int side, int flags, int value, int cell, FrameSink out) {
+        if (commitments[side] != null || !blobs[side].add(FleetCommitment.HASH_SIZE, flags, value, cell)) {
+            forfeit(side, out);
+            return;
+        }
+        if (!blobs[side].isComplete()) {
+            return;
+        }
+        commitments[side] = blobs[side].take();
+        if (commitments[1 - side] == null) {
+            return;
+        }
+        for (int s = 0; s < 2; s++) {
+            Protocol.sendBlob(out, s, Protocol.COMMIT, commitments[1 - s]);
+            out.send(s, Protocol.READY, 0, 0, 0);
+        }
+        phase = Phase.PLAYING;
+    }
+
+    // A shot out of turn, off the board, at a cell already answered or while the last one is
+    // still unanswered is refused with REPEAT rather than held against the shooter.
+    private void onShot(int side, int seq, int cell, FrameSink out) {
+        if (side != turn || pendingCell != -1 || cell < 0 || cell >= config.getCells()
+                || views[1 - side].isShot(cell / config.getWidth(), cell % config.getWidth())) {
+            out.send(side, Protocol.RESULT, ShotResult.REPEAT.ordinal(), seq, cell);
+            return;
+        }
+        pendingCell = cell;
+        pendingSeq = seq;
+        out.send(1 - side, Protocol.INCOMING, 0, 0, cell);
+    }
+
+    private void onAnswer(int side, int flags, int cell, FrameSink out) {
+        if (cell != pendingCell || flags == ShotResult.REPEAT.ordinal() || flags >= ShotResult.values().length) {
+            forfeit(side, out);
+        } else if (flags == ShotResult.SUNK.ordinal()) {
+            // Resolved once the SHIP frame naming the sunk ship arrives.
+            awaitingShip = true;
+        } else {
+            resolve(side, ShotResult.values()[flags], null, out);
+        }
+    }
+
+    private void onSunkShip(int side, int flags, int size, int origin, FrameSink out) {
+        Board view = views[side];
+        int width = config.getWidth();
+        boolean vertical = (flags & Protocol.VERTICAL) != 0;
+        if ((flags & Protocol.SUNK_SHIP) == 0 || origin < 0 || origin >= config.getCells()
+                || !view.canPlaceShip(origin / width, origin % width, size, vertical)) {
+            forfeit(side, out);
+            return;
+        }
+        Ship ship = new Ship(size, origin / width, origin % width, vertical);
+        if (!isSinkable(view, ship)) {
+            forfeit(side, out);
+            return;
+        }
+        resolve(side, ShotResult.SUNK, ship, out);
+    }
+
+    // Whether the answers so far allow this ship to have just sunk: it covers the pending shot,
+    // every other cell of it was answered HIT and the fleet has a ship of its size still afloat.
+    private boolean isSinkable(Board view, Ship ship) {
+        int width = config.getWidth();
+        if (!ship.contains(pendingCell / width, pendingCell % width)) {
+            return false;
+        }
+        for (int r = ship.getRow(); r <= ship.getLastRow(); r++) {
+            for (int c = ship.getCol(); c <= ship.getLastCol(); c++) {
+                if (r * width + c != pendingCell && view.getAttackResult(r, c) != AttackResult.HIT) {
+                    return false;
+                }
+            }
+        }
+        int afloat = 0;
+        for (int size : config.getFleet()) {
+            if (size == ship.getSize()) afloat++;
+        }
+        for (Ship sunk : view.getShips()) {
+            if (sunk.getSize() == ship.getSize()) afloat--;
+        }
+        return afloat > 0;
+    }
+
+    private void resolve(int defender, ShotResult result, Ship sunk, FrameSink out) {
+        int shooter = 1 - defender;
+        int cell = pendingCell;
+        Board view = views[defender];
+        pendingCell = -1;
+        awaitingShip = false;
+        view.applyResult(cell / config.getWidth(), cell % config.getWidth(), result, sunk);
+        shotCells[defender] += view.getChanges().size();
+        logs[defender].record(cell, result);
+        out.send(shooter, Protocol.RESULT, result.ordinal(), pendingSeq, cell);
+        if (sunk != null) {
+            out.send(shooter, Protocol.SHIP, (sunk.isVertical() ? Protocol.VERTICAL : 0) | Protocol.SUNK_SHIP,
+                    sunk.getSize(), view.cell(sunk.getRow(), sunk.getCol()));
+        }
+        // A defender that never admits to its last ship runs out of cells instead.
+        if (view.getShips().size() == config.getFleet().length || shotCells[defender] == config.getCells()) {
+            winner = shooter;
+            phase = Phase.REVEALING;
+            out.send(0, Protocol.END, 0, 0, 0);
+            out.send(1, Protocol.END, 0, 0, 0);
+        } else {
+            turn = defender;
+        }
+    }
+
+    private void onReveal(int side, int flags, int value, int cell, FrameSink out) {
+        if (!blobs[side].add(FleetCommitment.openingSize(config), flags, value, cell)) {
+            forfeit(side, out);
+            return;
+        }
+        if (!blobs[side].isComplete()) {
+            return;
+        }
+        openings[side] = blobs[side].take();
+        if (!FleetCommitment.verify(config, commitments[side], openings[side], logs[side])) {
+            cheated[side] = true;
+        }
+        if (openings[1 - side] == null) {
+            return;
+        }
+        for (int s = 0; s < 2; s++) {
+            Protocol.sendBlob(out, s, Protocol.REVEAL, openings[1 - s]);
+        }
+        finish(out);
+    }
+
+    private void forfeit(int side, FrameSink out) {
+        cheated[side] = true;
+        finish(out);
+    }
+
+    // A side caught cheating loses whoever sank what; if both were, neither wins.
+    private void finish(FrameSink out) {
+        if (cheated[0] != cheated[1]) {
+            winner = cheated[0] ? 1 : 0;
+        } else if (cheated[0]) {
+            winner = -1;
+        }
+        phase = Phase.OVER;
+        for (int side = 0; side < 2; side++) {
+            out.send(side, Protocol.GAME_OVER, side == winner ? 1 : 0, 0, 0);
+        }
+    }
+}
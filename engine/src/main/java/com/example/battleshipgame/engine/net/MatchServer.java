@@ -0,0 +1,221 @@
+package com.example.battleshipgame.engine.net;
+
+import com.example.battleshipgame.engine.GameConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Host for one two-player match. Every frame goes through Match, which relays shots and answers
+// and checks them against each client's fleet commitment; the fleets stay on the clients, so
+// the device hosting the server learns nothing the rules do not reveal. One thread runs a
+// non-blocking selector loop; all frames a pass produces for a client leave in a single write.
+// A non-zero latency holds every outgoing frame back that long, to stand in for a real network.
+public final class MatchServer implements Runnable, Closeable {
+    private static final Logger LOG = Logger.getLogger(MatchServer.class.getName());
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final GameConfig config;
+    private final long latencyNanos;
+    private final Connection[] sides = new Connection[2];
+    private final Match.FrameSink sink = this::send;
+    private Match match;
+    private volatile boolean closed;
+
+    public MatchServer(InetSocketAddress address, GameConfig config, long latencyMillis) throws IOException {
+        this.config = config;
+        this.latencyNanos = latencyMillis * 1_000_000L;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                long due = nextDueNanos();
+                long wait = due - System.nanoTime();
+                if (due == Long.MAX_VALUE) {
+                    selector.select();
+                } else if (wait > 0) {
+                    selector.select(Math.max(1, wait / 1_000_000));
+                } else {
+                    selector.selectNow();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable() && !read(connection)) {
+                            break;
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(connection);
+                        }
+                    }
+                }
+                for (Connection connection : sides) {
+                    if (connection != null) write(connection);
+                }
+            }
+        } catch (IOException e) {
+            // Closing both connections below is what tells the clients the match is gone.
+            if (!closed) LOG.log(Level.WARNING, "Match server failed", e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        int side = sides[0] == null ? 0 : sides[1] == null ? 1 : -1;
+        if (side == -1) {
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(side, channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        sides[side] = connection;
+        if (sides[0] != null && sides[1] != null) {
+            start();
+        }
+    }
+
+    private void start() {
+        match = new Match(config);
+        match.start(sink);
+    }
+
+    // False once the match is over because a side hung up.
+    private boolean read(Connection connection) throws IOException {
+        int read;
+        try {
+            read = connection.channel.read(connection.in);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read == -1) {
+            closed = true;
+            return false;
+        }
+        ByteBuffer in = connection.in;
+        in.flip();
+        while (in.remaining() >= Protocol.FRAME_SIZE) {
+            byte type = in.get();
+            int flags = in.get() & 0xff;
+            int value = in.getShort() & 0xffff;
+            int cell = in.getInt();
+            if (match != null) {
+                match.onFrame(connection.side, type, flags, value, cell, sink);
+            }
+        }
+        in.compact();
+        return true;
+    }
+
+    private void send(int side, byte type, int flags, int value, int cell) {
+        Connection connection = sides[side];
+        ByteBuffer frame = ByteBuffer.allocate(Protocol.FRAME_SIZE);
+        Protocol.put(frame, type, flags, value, cell);
+        frame.flip();
+        connection.queue.add(new Pending(System.nanoTime() + latencyNanos, frame));
+    }
+
+    // Moves every frame that is due into the write buffer and writes as much as the socket takes.
+    private void write(Connection connection) throws IOException {
+        long now = System.nanoTime();
+        ByteBuffer out = connection.out;
+        while (!connection.queue.isEmpty() && connection.queue.peek().due <= now
+                && out.remaining() >= Protocol.FRAME_SIZE) {
+            out.put(connection.queue.poll().frame);
+        }
+        out.flip();
+        if (out.hasRemaining()) {
+            connection.channel.write(out);
+        }
+        boolean blocked = out.hasRemaining();
+        out.compact();
+        connection.key.interestOps(blocked ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private long nextDueNanos() {
+        long due = Long.MAX_VALUE;
+        for (Connection connection : sides) {
+            if (connection != null && !connection.queue.isEmpty()) {
+                due = Math.min(due, connection.queue.peek().due);
+            }
+        }
+        return due;
+    }
+
+    private void closeQuietly() {
+        for (Connection connection : sides) {
+            if (connection == null) continue;
+            try {
+                connection.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Connection {
+        final int side;
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(64 * Protocol.FRAME_SIZE);
+        final ByteBuffer out = ByteBuffer.allocate(64 * Protocol.FRAME_SIZE);
+        final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        SelectionKey key;
+
+        Connection(int side, SocketChannel channel) {
+            this.side = side;
+            this.channel = channel;
+        }
+    }
+
+    private static final class Pending {
+        final long due;
+        final ByteBuffer frame;
+
+        Pending(long due, ByteBuffer frame) {
+            this.due = due;
+            this.frame = frame;
+        }
+    }
+}
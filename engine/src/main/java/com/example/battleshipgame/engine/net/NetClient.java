@@ -0,0 +1,391 @@
+package com.example.battleshipgame.engine.net;
+
+import com.example.battleshipgame.engine.AdjacencyRule;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Fleet;
+import com.example.battleshipgame.engine.FleetCommitment;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.Ship;
+import com.example.battleshipgame.engine.ShotLog;
+import com.example.battleshipgame.engine.ShotResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+// One player's end of a MatchServer match. A background thread does the socket I/O; decoded
+// frames are applied to the boards and reported to the listener on the callback executor, so
+// the boards are only ever touched there (the main thread on Android). Shots are sent without
+// waiting for earlier ones to be acknowledged; each RESULT names the sequence number it answers.
+// The own fleet is laid out here and only its commitment goes to the server; INCOMING shots are
+// answered from the own board. Every answer about the enemy fleet is logged and checked against
+// the opponent's commitment once their fleet is revealed, before onGameOver.
+public final class NetClient implements Closeable {
+
+    public interface Listener {
+        // Both boards exist and the own fleet is placed.
+        void onReady(NetClient client);
+
+        void onShotResult(int row, int col, ShotResult result);
+
+        void onIncomingShot(int row, int col, ShotResult result);
+
+        void onGameOver(boolean won);
+
+        // The connection is gone; cause is null if the server closed it.
+        void onDisconnected(IOException cause);
+
+        // The server sent something the protocol does not allow. The connection is closed and
+        // nothing more is reported but onDisconnected.
+        void onProtocolError(String message);
+    }
+
+    // Largest board a client accepts, so a hostile WELCOME cannot make it allocate gigabytes.
+    private static final int MAX_CELLS = 1 << 20;
+    // Lays out the fleet and salts its commitment; the server never learns either.
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final Executor callbacks;
+    private final Listener listener;
+    private final ByteBuffer in = ByteBuffer.allocate(64 * Protocol.FRAME_SIZE);
+    private final Object outLock = new Object();
+    private ByteBuffer out = ByteBuffer.allocate(16 * Protocol.FRAME_SIZE);
+    private final Match.FrameSink outgoing = (to, type, flags, value, cell) -> send(type, flags, value, cell);
+    private final Thread ioThread;
+    private volatile boolean closed;
+
+    // Touched only on the callback executor.
+    private int side;
+    private int width;
+    private int height;
+    private AdjacencyRule adjacency;
+    private final List<Integer> fleetSizes = new ArrayList<>();
+    private Board ownBoard;
+    private Board enemyBoard;
+    private FleetCommitment ownCommitment;
+    private boolean ready;
+    private boolean revealed;
+    private boolean myTurn;
+    private int nextSeq;
+    private int unacknowledged;
+    private int pendingSunkCell = -1;
+    private final ShotLog enemyAnswers = new ShotLog();
+    private byte[] enemyCommitment;
+    private final BlobBuffer blob = new BlobBuffer();
+    private boolean enemyVerified;
+    private boolean failed;
+
+    private NetClient(SocketChannel channel, Selector selector, Executor callbacks, Listener listener) {
+        this.channel = channel;
+        this.selector = selector;
+        this.callbacks = callbacks;
+        this.listener = listener;
+        this.ioThread = new Thread(this::loop, "net-client");
+    }
+
+    public static NetClient connect(InetSocketAddress address, Executor callbacks, Listener listener) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Selector selector = Selector.open();
+        NetClient client = new NetClient(channel, selector, callbacks, listener);
+        channel.register(selector, channel.connect(address) ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+        client.ioThread.start();
+        return client;
+    }
+
+    public int getSide() {
+        return side;
+    }
+
+    public Board getOwnBoard() {
+        return ownBoard;
+    }
+
+    public Board getEnemyBoard() {
+        return enemyBoard;
+    }
+
+    public boolean isMyTurn() {
+        return myTurn;
+    }
+
+    // True once the revealed enemy fleet matched the commitment and every answer about it.
+    public boolean isEnemyFleetVerified() {
+        return enemyVerified;
+    }
+
+    // Shots sent but not yet answered by the server.
+    public int getUnacknowledged() {
+        return unacknowledged;
+    }
+
+    // Sends a shot at the enemy board and returns its sequence number. The turn is given up
+    // right away; the server's RESULT confirms or, with REPEAT, rejects it.
+    public int shoot(int row, int col) {
+        int seq = nextSeq++ & 0xffff;
+        myTurn = false;
+        unacknowledged++;
+        send(Protocol.SHOT, 0, seq, row * width + col);
+        return seq;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void loop() {
+        IOException failure = null;
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isConnectable() && channel.finishConnect()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                    if (key.isValid() && key.isReadable() && !read()) {
+                        closed = true;
+                    }
+                }
+                if (channel.isConnected()) {
+                    flush();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            try {
+                channel.close();
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+        IOException cause = failure;
+        callbacks.execute(() -> listener.onDisconnected(cause));
+    }
+
+    private boolean read() throws IOException {
+        if (channel.read(in) == -1) {
+            return false;
+        }
+        in.flip();
+        while (in.remaining() >= Protocol.FRAME_SIZE) {
+            byte type = in.get();
+            int flags = in.get() & 0xff;
+            int value = in.getShort() & 0xffff;
+            int cell = in.getInt();
+            callbacks.execute(() -> handle(type, flags, value, cell));
+        }
+        in.compact();
+        return true;
+    }
+
+    private void flush() throws IOException {
+        synchronized (outLock) {
+            out.flip();
+            while (out.hasRemaining() && channel.write(out) > 0) {
+                // A full socket buffer leaves the rest for the next pass.
+            }
+            out.compact();
+        }
+    }
+
+    private void handle(byte type, int flags, int value, int cell) {
+        if (failed) {
+            return;
+        }
+        try {
+            apply(type, flags, value, cell);
+        } catch (ProtocolException e) {
+            failed = true;
+            myTurn = false;
+            close();
+            listener.onProtocolError(e.getMessage());
+        }
+    }
+
+    private void apply(byte type, int flags, int value, int cell) throws ProtocolException {
+        if ((type == Protocol.WELCOME) != (width == 0)) {
+            throw new ProtocolException(type == Protocol.WELCOME ? "WELCOME twice" : "Frame " + type + " before WELCOME");
+        }
+        switch (type) {
+            case Protocol.WELCOME:
+                if (flags >>> 1 >= AdjacencyRule.values().length || value < 1 || cell < 1
+                        || (long) value * cell > MAX_CELLS) {
+                    throw new ProtocolException("Bad WELCOME: flags " + flags + ", board " + value + "x" + cell);
+                }
+                side = flags & 1;
+                adjacency = AdjacencyRule.values()[flags >>> 1];
+                width = value;
+                height = cell;
+                break;
+            case Protocol.FLEET:
+                if (ownBoard != null || value < 1 || cell < 1 || fleetSizes.size() + (long) cell > Short.MAX_VALUE) {
+                    throw new ProtocolException("Bad FLEET: " + cell + " ships of size " + value);
+                }
+                for (int i = 0; i < cell; i++) {
+                    fleetSizes.add(value);
+                }
+                if ((flags & Protocol.LAST) != 0) {
+                    layOutFleet();
+                }
+                break;
+            case Protocol.COMMIT:
+                if (enemyBoard == null || ready || enemyCommitment != null
+                        || !blob.add(FleetCommitment.HASH_SIZE, flags, value, cell)) {
+                    throw new ProtocolException("Unexpected COMMIT");
+                }
+                if (blob.isComplete()) {
+                    enemyCommitment = blob.take();
+                }
+                break;
+            case Protocol.READY:
+                if (enemyCommitment == null || ready) {
+                    throw new ProtocolException("READY " + (ready ? "twice" : "without a commitment"));
+                }
+                ready = true;
+                myTurn = side == 0;
+                listener.onReady(this);
+                break;
+            case Protocol.RESULT:
+                if (!ready || flags >= ShotResult.values().length || !isCell(cell) || unacknowledged == 0) {
+                    throw new ProtocolException("Bad RESULT " + flags + " at " + cell);
+                }
+                unacknowledged--;
+                ShotResult result = ShotResult.values()[flags];
+                if (result == ShotResult.REPEAT) {
+                    myTurn = true;
+                    listener.onShotResult(cell / width, cell % width, result);
+                    break;
+                }
+                enemyAnswers.record(cell, result);
+                if (result == ShotResult.SUNK) {
+                    // Applied once the SHIP frame describing the sunk ship arrives.
+                    pendingSunkCell = cell;
+                } else {
+                    enemyBoard.applyResult(cell / width, cell % width, result, null);
+                    listener.onShotResult(cell / width, cell % width, result);
+                }
+                break;
+            case Protocol.SHIP: {
+                boolean vertical = (flags & Protocol.VERTICAL) != 0;
+                if (pendingSunkCell == -1 || !isCell(cell) || value < 1
+                        || (vertical ? cell / width + value > height : cell % width + value > width)) {
+                    throw new ProtocolException("Bad sunk ship of size " + value + " at " + cell);
+                }
+                Ship ship = new Ship(value, cell / width, cell % width, vertical);
+                if (!ship.contains(pendingSunkCell / width, pendingSunkCell % width)
+                        || enemyBoard.getShips().size() == enemyBoard.getConfig().getFleet().length) {
+                    throw new ProtocolException("Sunk ship at " + cell + " does not fit the enemy fleet");
+                }
+                enemyBoard.applyResult(pendingSunkCell / width, pendingSunkCell % width, ShotResult.SUNK, ship);
+                int sunkCell = pendingSunkCell;
+                pendingSunkCell = -1;
+                listener.onShotResult(sunkCell / width, sunkCell % width, ShotResult.SUNK);
+                break;
+            }
+            case Protocol.INCOMING: {
+                if (!ready || !isCell(cell)) {
+                    throw new ProtocolException("Bad INCOMING at " + cell);
+                }
+                ShotResult answer = ownBoard.shoot(cell / width, cell % width);
+                if (answer == ShotResult.REPEAT) {
+                    throw new ProtocolException("INCOMING at " + cell + ", which was already shot");
+                }
+                send(Protocol.ANSWER, answer.ordinal(), 0, cell);
+                if (answer == ShotResult.SUNK) {
+                    Ship sunk = ownBoard.getLastSunk();
+                    send(Protocol.SHIP, (sunk.isVertical() ? Protocol.VERTICAL : 0) | Protocol.SUNK_SHIP, sunk.getSize(),
+                            ownBoard.cell(sunk.getRow(), sunk.getCol()));
+                }
+                myTurn = !ownBoard.areAllShipsDestroyed();
+                listener.onIncomingShot(cell / width, cell % width, answer);
+                break;
+            }
+            case Protocol.END:
+                if (!ready || revealed) {
+                    throw new ProtocolException("Unexpected END");
+                }
+                revealed = true;
+                myTurn = false;
+                Protocol.sendBlob(outgoing, side, Protocol.REVEAL, ownCommitment.getOpening());
+                break;
+            case Protocol.REVEAL: {
+                if (!revealed || !blob.add(FleetCommitment.openingSize(enemyBoard.getConfig()), flags, value, cell)) {
+                    throw new ProtocolException("Unexpected REVEAL");
+                }
+                if (blob.isComplete()) {
+                    enemyVerified = FleetCommitment.verify(enemyBoard.getConfig(), enemyCommitment, blob.take(), enemyAnswers);
+                }
+                break;
+            }
+            case Protocol.GAME_OVER:
+                myTurn = false;
+                listener.onGameOver(flags == 1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Sets up both boards for the rules the server announced, lays out a fresh random fleet and
+    // commits to it. The layout never leaves this client until the game is over.
+    private void layOutFleet() throws ProtocolException {
+        int[] sizes = new int[fleetSizes.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = fleetSizes.get(i);
+        }
+        GameConfig config;
+        try {
+            config = new GameConfig(width, height, sizes, adjacency);
+            ownBoard = new Board(config);
+            Fleet.generateShips(ownBoard, RANDOM);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new ProtocolException(e.getMessage());
+        }
+        enemyBoard = new Board(config);
+        ownCommitment = FleetCommitment.of(ownBoard, RANDOM);
+        Protocol.sendBlob(outgoing, side, Protocol.COMMIT, ownCommitment.getHash());
+    }
+
+    private void send(byte type, int flags, int value, int cell) {
+        synchronized (outLock) {
+            if (out.remaining() < Protocol.FRAME_SIZE) {
+                ByteBuffer bigger = ByteBuffer.allocate(out.capacity() * 2);
+                out.flip();
+                bigger.put(out);
+                out = bigger;
+            }
+            Protocol.put(out, type, flags, value, cell);
+        }
+        selector.wakeup();
+    }
+
+    private boolean isCell(int cell) {
+        return cell >= 0 && cell < width * height;
+    }
+
+    private static final class ProtocolException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        ProtocolException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.battleshipgame.engine.net;
+
+import java.nio.ByteBuffer;
+
+// Every message is one fixed 8-byte frame: type, flags, an unsigned 16-bit value and a 32-bit
+// cell index, big-endian. Fixed frames need no length prefix, so a read buffer is parsed by
+// slicing off FRAME_SIZE bytes at a time.
+public final class Protocol {
+    public static final int FRAME_SIZE = 8;
+
+    // flags: side | adjacency ordinal << 1, value: board width, cell: board height.
+    public static final byte WELCOME = 1;
+    // flags: VERTICAL | SUNK_SHIP, value: ship size, cell: origin. From the server, the enemy
+    // ship your last shot sank; to the server, right after a SUNK ANSWER, your ship it sank.
+    public static final byte SHIP = 2;
+    // Both fleets are committed; side 0 shoots first.
+    public static final byte READY = 3;
+    // value: sequence number, cell: target.
+    public static final byte SHOT = 4;
+    // flags: ShotResult ordinal (REPEAT if rejected), value: sequence acknowledged, cell: target.
+    public static final byte RESULT = 5;
+    // cell: the cell the opponent shot on your board, to be answered with ANSWER.
+    public static final byte INCOMING = 6;
+    // flags: 1 if you won.
+    public static final byte GAME_OVER = 7;
+    // A byte string: a first frame with flags BLOB_START and the length in bytes in cell, then
+    // blobFrames(length) frames with BLOB_CHUNK bytes each in value and cell. The length is
+    // stated up front so a receiver can check it against what it expects before taking any
+    // data. COMMIT: to the server, once the fleet is laid out, the hash committing you to it;
+    // from the server, before READY, the opponent's. REVEAL: to the server, after END, your
+    // opening; from the server, before GAME_OVER, the opponent's.
+    public static final byte COMMIT = 8;
+    public static final byte REVEAL = 9;
+    // flags: LAST on the final one, value: ship size, cell: how many ships of that size. Follows
+    // WELCOME; once the fleet is complete, lay it out and send COMMIT.
+    public static final byte FLEET = 10;
+    // flags: ShotResult ordinal, cell: the cell INCOMING named.
+    public static final byte ANSWER = 11;
+    // The last shot is answered: send REVEAL.
+    public static final byte END = 12;
+
+    public static final int VERTICAL = 1;
+    public static final int SUNK_SHIP = 2;
+    public static final int BLOB_START = 1;
+    public static final int LAST = 1;
+    public static final int BLOB_CHUNK = 6;
+
+    private Protocol() {
+    }
+
+    public static void put(ByteBuffer out, byte type, int flags, int value, int cell) {
+        out.put(type);
+        out.put((byte) flags);
+        out.putShort((short) value);
+        out.putInt(cell);
+    }
+
+    // Number of data frames, after the first, a blob of the given length takes.
+    public static int blobFrames(int length) {
+        return (length + BLOB_CHUNK - 1) / BLOB_CHUNK;
+    }
+
+    // The value and cell fields carrying bytes [offset, offset + BLOB_CHUNK) of data, zero-padded.
+    public static int blobValue(byte[] data, int offset) {
+        return (byteAt(data, offset) << 8) | byteAt(data, offset + 1);
+    }
+
+    public static int blobCell(byte[] data, int offset) {
+        return (byteAt(data, offset + 2) << 24) | (byteAt(data, offset + 3) << 16)
+                | (byteAt(data, offset + 4) << 8) | byteAt(data, offset + 5);
+    }
+
+    // Copies a received chunk back into data at offset, dropping the padding past its end.
+    public static void unpackBlob(byte[] data, int offset, int value, int cell) {
+        long chunk = (long) value << 32 | (cell & 0xffffffffL);
+        for (int i = 0; i < BLOB_CHUNK && offset + i < data.length; i++) {
+            data[offset + i] = (byte) (chunk >>> 8 * (BLOB_CHUNK - 1 - i));
+        }
+    }
+
+    // Queues a blob for one side, in the frames described at COMMIT.
+    public static void sendBlob(Match.FrameSink out, int side, byte type, byte[] data) {
+        out.send(side, type, BLOB_START, 0, data.length);
+        for (int offset = 0; offset < data.length; offset += BLOB_CHUNK) {
+            out.send(side, type, 0, blobValue(data, offset), blobCell(data, offset));
+        }
+    }
+
+    private static int byteAt(byte[] data, int i) {
+        return i < data.length ? data[i] & 0xff : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.battleshipgame.engine.sim;
+
+import com.example.battleshipgame.engine.AdjacencyRule;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Fleet;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.OpeningBook;
+import com.example.battleshipgame.engine.Ship;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+// Builds the opening book shipped with the app.
+//
+//   ./gradlew :engine:openingBook
+//
+// For each rule set it draws --samples fleets with Fleet.generateShips, the same distribution
+// every game is dealt from, and keeps each as a bitmask. The next cell of the line is the one
+// the most surviving fleets occupy; the fleets it would have hit are then dropped, since the
+// line only continues while shots miss. The line ends at --depth cells or when fewer than
+// --min-fleets fleets survive and the estimate gets noisy.
+public final class OpeningBookGenerator {
+
+    private OpeningBookGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int samples = 4_000_000;
+        int depth = 40;
+        int minFleets = 1000;
+        long seed = 1;
+        String out = "openings.bin";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--samples":
+                    samples = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--depth":
+                    depth = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--min-fleets":
+                    minFleets = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--out":
+                    out = args[i + 1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Map<GameConfig, int[]> lines = new LinkedHashMap<>();
+        for (AdjacencyRule adjacency : AdjacencyRule.values()) {
+            GameConfig config = new GameConfig(10, 10, Fleet.SHIP_SIZES, adjacency);
+            long start = System.nanoTime();
+            int[] line = line(config, samples, depth, minFleets, new Random(seed));
+            lines.put(config, line);
+            System.out.printf("%s: %d cells in %.1f s%n", config, line.length, (System.nanoTime() - start) / 1e9);
+        }
+        Files.write(Paths.get(out), OpeningBook.write(lines));
+    }
+
+    static int[] line(GameConfig config, int samples, int depth, int minFleets, Random random) {
+        int stride = (config.getCells() + 63) >>> 6;
+        long[] fleets = new long[samples * stride];
+        Board board = new Board(config);
+        for (int i = 0; i < samples; i++) {
+            Fleet.generateShips(board, random);
+            for (Ship ship : board.getShips()) {
+                for (int k = 0; k < ship.getSize(); k++) {
+                    int cell = board.cell(ship.isVertical() ? ship.getRow() + k : ship.getRow(),
+                            ship.isVertical() ? ship.getCol() : ship.getCol() + k);
+                    fleets[i * stride + (cell >>> 6)] |= 1L << cell;
+                }
+            }
+        }
+
+        int[] line = new int[depth];
+        boolean[] shot = new boolean[config.getCells()];
+        int[] counts = new int[config.getCells()];
+        int alive = samples;
+        int length = 0;
+        while (length < depth && alive >= minFleets) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < alive; i++) {
+                for (int w = 0; w < stride; w++) {
+                    for (long bits = fleets[i * stride + w]; bits != 0; bits &= bits - 1) {
+                        counts[(w << 6) + Long.numberOfTrailingZeros(bits)]++;
+                    }
+                }
+            }
+            int best = -1;
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (!shot[cell] && (best == -1 || counts[cell] > counts[best])) best = cell;
+            }
+            shot[best] = true;
+            line[length++] = best;
+
+            // Keep the fleets this shot misses, compacted to the front.
+            int kept = 0;
+            for (int i = 0; i < alive; i++) {
+                if ((fleets[i * stride + (best >>> 6)] & 1L << best) != 0) continue;
+                System.arraycopy(fleets, i * stride, fleets, kept * stride, stride);
+                kept++;
+            }
+            alive = kept;
+        }
+        return Arrays.copyOf(line, length);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.battleshipgame.engine.sim;
+
+import com.example.battleshipgame.engine.AdjacencyRule;
+import com.example.battleshipgame.engine.Difficulty;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.OpeningBook;
+import com.example.battleshipgame.engine.Strategies;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+// The command-line options Simulator and Tournament share: the rules to play (--board 100x100,
+// --fleet 5,4,4,3,3,2, --adjacency TOUCHING_ALLOWED), an opening book for HARD and EXPERT
+// (--book openings.bin), endgame solver limits for the built-in strategies (--endgame 3,20,50
+// for ships, layouts and milliseconds a move) and the size of the run (--games, --threads,
+// --seed). Every other option goes to the tool's own handler.
+final class SimOptions {
+
+    interface Handler {
+        // False for an option the tool does not know either.
+        boolean accept(String option, String value);
+    }
+
+    long games;
+    int threads = Runtime.getRuntime().availableProcessors();
+    long seed = System.nanoTime();
+    private int width = GameConfig.CLASSIC.getWidth();
+    private int height = GameConfig.CLASSIC.getHeight();
+    private int[] fleet = GameConfig.CLASSIC.getFleet();
+    private AdjacencyRule adjacency = GameConfig.CLASSIC.getAdjacency();
+
+    private SimOptions(long games) {
+        this.games = games;
+    }
+
+    static SimOptions parse(String[] args, long games, Handler tool) throws IOException {
+        SimOptions options = new SimOptions(games);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--games":
+                    options.games = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    options.threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "--board": {
+                    String[] size = value.toLowerCase(Locale.ROOT).split("x");
+                    options.width = Integer.parseInt(size[0]);
+                    options.height = Integer.parseInt(size[size.length - 1]);
+                    break;
+                }
+                case "--fleet": {
+                    String[] sizes = value.split(",");
+                    options.fleet = new int[sizes.length];
+                    for (int k = 0; k < sizes.length; k++) {
+                        options.fleet[k] = Integer.parseInt(sizes[k].trim());
+                    }
+                    break;
+                }
+                case "--adjacency":
+                    options.adjacency = AdjacencyRule.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--endgame": {
+                    String[] limits = value.split(",");
+                    for (Difficulty difficulty : Difficulty.values()) {
+                        if (difficulty != Difficulty.MULTIPLAYER) {
+                            Strategies.register(difficulty.name(), Strategies.withEndgame(difficulty,
+                                    Integer.parseInt(limits[0].trim()), Integer.parseInt(limits[1].trim()),
+                                    Long.parseLong(limits[2].trim()) * 1_000_000L));
+                        }
+                    }
+                    break;
+                }
+                case "--book":
+                    OpeningBook.install(OpeningBook.read(ByteBuffer.wrap(Files.readAllBytes(Paths.get(value)))));
+                    break;
+                default:
+                    if (!tool.accept(args[i], value)) {
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                    }
+                    break;
+            }
+        }
+        return options;
+    }
+
+    GameConfig config() {
+        return new GameConfig(width, height, fleet, adjacency);
+    }
+
+    // The registered name a strategy option refers to.
+    static String strategy(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        if (!Strategies.names().contains(key)) {
+            throw new IllegalArgumentException("No strategy named " + name);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.battleshipgame.engine.sim;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Running totals shared by all simulation workers. Shots-to-win are kept as a histogram over
+// the possible shot counts, so percentiles need no per-game storage.
+final class SimulationStats {
+    private final int maxShots;
+    private final AtomicLongArray wins = new AtomicLongArray(2);
+    private final AtomicLongArray winningShots;
+    private final AtomicLongArray totalWinningShots = new AtomicLongArray(1);
+
+    SimulationStats(int cells) {
+        this.maxShots = 2 * cells;
+        this.winningShots = new AtomicLongArray(maxShots + 1);
+    }
+
+    void record(int winner, int shotsByWinner) {
+        wins.incrementAndGet(winner);
+        winningShots.incrementAndGet(Math.min(shotsByWinner, maxShots));
+        totalWinningShots.addAndGet(0, shotsByWinner);
+    }
+
+    long games() {
+        return wins.get(0) + wins.get(1);
+    }
+
+    long wins(int side) {
+        return wins.get(side);
+    }
+
+    double meanShotsToWin() {
+        long games = games();
+        return games == 0 ? 0 : (double) totalWinningShots.get(0) / games;
+    }
+
+    int percentileShotsToWin(double percentile) {
+        long games = games();
+        long rank = (long) Math.ceil(percentile / 100.0 * games);
+        long seen = 0;
+        for (int shots = 0; shots <= maxShots; shots++) {
+            seen += winningShots.get(shots);
+            if (seen >= rank && seen > 0) {
+                return shots;
+            }
+        }
+        return maxShots;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.battleshipgame.engine.sim;
+
+import com.example.battleshipgame.engine.Game;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.ShotStrategy;
+import com.example.battleshipgame.engine.Strategies;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Plays N games between two AI strategies on every core and prints aggregated results.
+//
+//   ./gradlew :engine:simulate --args="--games 1000000 --first normal --second hard --out games.csv"
+//
+// --first and --second take any name registered with Strategies. --board, --fleet, --adjacency,
+// --book, --threads and --seed are the options every tool here shares; see SimOptions.
+//
+// Each finished game is streamed to --out (CSV, or JSON lines if the name ends in .jsonl) by a
+// single writer thread; nothing per game is kept in memory. Sides alternate who shoots first.
+public final class Simulator {
+    private static final String END = "";
+
+    private final GameConfig config;
+    private final String[] strategies;
+    private final long games;
+    private final long seed;
+    private final SimulationStats stats;
+    private final AtomicLong nextGame = new AtomicLong();
+    private volatile IOException writeFailure;
+
+    Simulator(GameConfig config, String first, String second, long games, long seed) {
+        this.config = config;
+        this.strategies = new String[]{first, second};
+        this.games = games;
+        this.seed = seed;
+        this.stats = new SimulationStats(config.getCells());
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] players = {"easy", "normal"};
+        String[] out = new String[1];
+        SimOptions options = SimOptions.parse(args, 10_000, (option, value) -> {
+            switch (option) {
+                case "--first":
+                    players[0] = SimOptions.strategy(value);
+                    return true;
+                case "--second":
+                    players[1] = SimOptions.strategy(value);
+                    return true;
+                case "--out":
+                    out[0] = value;
+                    return true;
+                default:
+                    return false;
+            }
+        });
+
+        Simulator simulator = new Simulator(options.config(), players[0], players[1], options.games, options.seed);
+        long start = System.nanoTime();
+        simulator.run(options.threads, out[0]);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        simulator.printSummary(seconds);
+    }
+
+    void run(int threads, String out) throws InterruptedException, IOException {
+        BlockingQueue<String> lines = new ArrayBlockingQueue<>(4096);
+        boolean json = out != null && out.endsWith(".jsonl");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Writer file = null;
+        if (out != null) {
+            file = Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8);
+            if (!json) {
+                file.write("game,first,second,starter,winner,shots_by_winner,total_shots,nanos\n");
+            }
+        }
+
+        BlockingQueue<String> sink = out != null ? lines : null;
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> work(sink, json));
+        }
+        // Started once every worker is queued, so a write error cannot shut the pool down first.
+        Thread writer = null;
+        if (file != null) {
+            Writer target = file;
+            writer = new Thread(() -> drain(lines, target, pool), "simulation-writer");
+            writer.start();
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+
+        if (writer != null) {
+            lines.put(END);
+            writer.join();
+            if (writeFailure != null) {
+                throw new IOException("Could not write " + out, writeFailure);
+            }
+        }
+    }
+
+    private void work(BlockingQueue<String> sink, boolean json) {
+        StringBuilder line = new StringBuilder(128);
+        // Everything a game needs is made once per thread and reset between games, so playing
+        // one allocates nothing; each game is still dealt from seed + game alone.
+        Random random = new Random();
+        ShotStrategy[] players = {
+                Strategies.create(strategies[0], config, random),
+                Strategies.create(strategies[1], config, random)
+        };
+        ShotStrategy[] sides = new ShotStrategy[2];
+        int[] shots = new int[2];
+        Game match = null;
+        try {
+            long game;
+            while ((game = nextGame.getAndIncrement()) < games) {
+                long start = System.nanoTime();
+                int starter = (int) (game & 1);
+                random.setSeed(seed + game);
+                sides[0] = players[starter];
+                sides[1] = players[1 - starter];
+                sides[0].reset();
+                sides[1].reset();
+                if (match == null) {
+                    match = new Game(config, random);
+                } else {
+                    match.reset(random);
+                }
+                shots[0] = 0;
+                shots[1] = 0;
+                while (!match.isOver()) {
+                    int side = match.isPlayerTurn() ? 0 : 1;
+                    int cell = sides[side].nextShot(match.getDefendingBoard());
+                    int row = cell / config.getWidth();
+                    int col = cell % config.getWidth();
+                    sides[side].onShot(row, col, match.fire(row, col));
+                    shots[side]++;
+                }
+
+                int winnerSide = match.hasPlayerWon() ? 0 : 1;
+                int winner = winnerSide == 0 ? starter : 1 - starter;
+                stats.record(winner, shots[winnerSide]);
+
+                if (sink != null) {
+                    line.setLength(0);
+                    long nanos = System.nanoTime() - start;
+                    if (json) {
+                        line.append("{\"game\":").append(game)
+                                .append(",\"first\":\"").append(strategies[0])
+                                .append("\",\"second\":\"").append(strategies[1])
+                                .append("\",\"starter\":").append(starter)
+                                .append(",\"winner\":").append(winner)
+                                .append(",\"shotsByWinner\":").append(shots[winnerSide])
+                                .append(",\"totalShots\":").append(shots[0] + shots[1])
+                                .append(",\"nanos\":").append(nanos).append('}');
+                    } else {
+                        line.append(game).append(',').append(strategies[0]).append(',').append(strategies[1])
+                                .append(',').append(starter).append(',').append(winner)
+                                .append(',').append(shots[winnerSide]).append(',').append(shots[0] + shots[1])
+                                .append(',').append(nanos);
+                    }
+                    try {
+                        sink.put(line.toString());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        } finally {
+            players[0].close();
+            players[1].close();
+        }
+    }
+
+    // On a write error the games are stopped too: interrupting the workers wakes any blocked on
+    // the full queue, and emptying it leaves room for run() to queue END.
+    private void drain(BlockingQueue<String> lines, Writer file, ExecutorService pool) {
+        try (BufferedWriter out = new BufferedWriter(file, 1 << 16)) {
+            String line;
+            while (!(line = lines.take()).equals(END)) {
+                out.write(line);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            writeFailure = e;
+            pool.shutdownNow();
+            lines.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void printSummary(double seconds) {
+        long played = stats.games();
+        System.out.printf(Locale.ROOT, "rules:            %dx%d, %d ships, %s%n", config.getWidth(), config.getHeight(),
+                config.getFleet().length, config.getAdjacency());
+        System.out.printf(Locale.ROOT, "games:            %d in %.2f s (%.0f games/s)%n", played, seconds, played / seconds);
+        for (int side = 0; side < 2; side++) {
+            System.out.printf(Locale.ROOT, "%-17s %d wins (%.2f%%)%n", strategies[side] + (side == 0 ? " (first):" : " (second):"),
+                    stats.wins(side), 100.0 * stats.wins(side) / Math.max(1, played));
+        }
+        System.out.printf(Locale.ROOT, "shots to win:     mean %.2f, p50 %d, p90 %d, p99 %d%n", stats.meanShotsToWin(),
+                stats.percentileShotsToWin(50), stats.percentileShotsToWin(90), stats.percentileShotsToWin(99));
+    }
+}
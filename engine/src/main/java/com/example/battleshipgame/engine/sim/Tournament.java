@@ -0,0 +1,257 @@
+package com.example.battleshipgame.engine.sim;
+
+import com.example.battleshipgame.engine.Game;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.ShotStrategy;
+import com.example.battleshipgame.engine.Strategies;
+import com.example.battleshipgame.engine.metrics.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Round robin between registered strategies on every core: each pair plays --games games, sides
+// alternating who shoots first. Prints Elo ratings fitted to all results at once (so the order
+// games finish in does not matter), the win matrix and what a move costs each strategy.
+//
+//   ./gradlew :engine:tournament --args="--games 2000 --strategies easy,normal,hard"
+//
+// Leaving out --strategies plays every registered one. EXPERT searches for up to 300 ms a move
+// on a shared pool, so its CPU column only covers the calling thread; its wall time is what
+// a player waits. --board, --fleet, --adjacency, --book, --threads and --seed are shared with
+// Simulator; see SimOptions.
+public final class Tournament {
+    private static final double BASE_RATING = 1500;
+    private static final int RATING_ITERATIONS = 10_000;
+
+    private final GameConfig config;
+    private final String[] names;
+    private final long games;
+    private final long seed;
+    private final int[][] pairs;
+    private final AtomicLong nextGame = new AtomicLong();
+    // wins[i * n + j]: games strategy i won against strategy j.
+    private final AtomicLongArray wins;
+    private final AtomicLongArray cpuNanos;
+    private final AtomicLongArray wallNanos;
+    private final Histogram[] moveMicros;
+
+    Tournament(GameConfig config, String[] names, long games, long seed) {
+        this.config = config;
+        this.names = names;
+        this.games = games;
+        this.seed = seed;
+        int n = names.length;
+        this.pairs = new int[n * (n - 1) / 2][];
+        for (int i = 0, p = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                pairs[p++] = new int[]{i, j};
+            }
+        }
+        this.wins = new AtomicLongArray(n * n);
+        this.cpuNanos = new AtomicLongArray(n);
+        this.wallNanos = new AtomicLongArray(n);
+        this.moveMicros = new Histogram[n];
+        for (int i = 0; i < n; i++) {
+            moveMicros[i] = new Histogram();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[][] names = {Strategies.names().toArray(new String[0])};
+        SimOptions options = SimOptions.parse(args, 1_000, (option, value) -> {
+            if (!option.equals("--strategies")) {
+                return false;
+            }
+            names[0] = value.split(",");
+            for (int i = 0; i < names[0].length; i++) {
+                names[0][i] = SimOptions.strategy(names[0][i]);
+            }
+            return true;
+        });
+        if (names[0].length < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two strategies");
+        }
+
+        Tournament tournament = new Tournament(options.config(), names[0], options.games, options.seed);
+        long start = System.nanoTime();
+        tournament.run(options.threads);
+        tournament.printSummary((System.nanoTime() - start) / 1e9);
+    }
+
+    void run(int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.execute(this::work);
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    private void work() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        boolean measureCpu = threadBean.isCurrentThreadCpuTimeSupported();
+        int n = names.length;
+        // As in Simulator, each thread builds a strategy once and resets it between games, and
+        // game g is dealt from seed + g alone.
+        Random random = new Random();
+        ShotStrategy[] players = new ShotStrategy[n];
+        long[] cpu = new long[n];
+        long[] wall = new long[n];
+        Histogram[] micros = new Histogram[n];
+        for (int i = 0; i < n; i++) {
+            micros[i] = new Histogram();
+        }
+        int[] sides = new int[2];
+        Game match = null;
+        long total = pairs.length * games;
+        try {
+            long game;
+            while ((game = nextGame.getAndIncrement()) < total) {
+                int[] pair = pairs[(int) (game / games)];
+                int starter = (int) ((game % games) & 1);
+                sides[0] = pair[starter];
+                sides[1] = pair[1 - starter];
+                random.setSeed(seed + game);
+                for (int side : sides) {
+                    if (players[side] == null) {
+                        players[side] = Strategies.create(names[side], config, random);
+                    }
+                    players[side].reset();
+                }
+                if (match == null) {
+                    match = new Game(config, random);
+                } else {
+                    match.reset(random);
+                }
+                while (!match.isOver()) {
+                    int side = sides[match.isPlayerTurn() ? 0 : 1];
+                    long cpuStart = measureCpu ? threadBean.getCurrentThreadCpuTime() : 0;
+                    long wallStart = System.nanoTime();
+                    int cell = players[side].nextShot(match.getDefendingBoard());
+                    long elapsed = System.nanoTime() - wallStart;
+                    wall[side] += elapsed;
+                    micros[side].record(elapsed / 1000);
+                    if (measureCpu) {
+                        cpu[side] += threadBean.getCurrentThreadCpuTime() - cpuStart;
+                    }
+                    int row = cell / config.getWidth();
+                    int col = cell % config.getWidth();
+                    players[side].onShot(row, col, match.fire(row, col));
+                }
+                int winner = sides[match.hasPlayerWon() ? 0 : 1];
+                wins.incrementAndGet(winner * n + (winner == pair[0] ? pair[1] : pair[0]));
+            }
+        } finally {
+            for (int i = 0; i < n; i++) {
+                if (players[i] != null) {
+                    players[i].close();
+                }
+                cpuNanos.addAndGet(i, cpu[i]);
+                wallNanos.addAndGet(i, wall[i]);
+                synchronized (moveMicros[i]) {
+                    moveMicros[i].merge(micros[i]);
+                }
+            }
+        }
+    }
+
+    // Elo ratings of the Bradley-Terry model fitted to wins (wins[i * n + j] = i beat j) by
+    // minorization-maximization, centred on 1500. Every pair that played also gets a drawn game
+    // added, so a strategy that won or lost everything still gets a finite rating.
+    static double[] ratings(long[] wins, int n) {
+        double[] strength = new double[n];
+        Arrays.fill(strength, 1);
+        for (int iteration = 0; iteration < RATING_ITERATIONS; iteration++) {
+            double change = 0;
+            for (int i = 0; i < n; i++) {
+                double won = 0;
+                double expected = 0;
+                for (int j = 0; j < n; j++) {
+                    long played = wins[i * n + j] + wins[j * n + i];
+                    if (j == i || played == 0) {
+                        continue;
+                    }
+                    won += wins[i * n + j] + 0.5;
+                    expected += (played + 1) / (strength[i] + strength[j]);
+                }
+                double updated = expected > 0 ? won / expected : 1;
+                change = Math.max(change, Math.abs(Math.log(updated / strength[i])));
+                strength[i] = updated;
+            }
+            if (change < 1e-12) {
+                break;
+            }
+        }
+        double[] ratings = new double[n];
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            ratings[i] = 400 * Math.log10(strength[i]);
+            mean += ratings[i] / n;
+        }
+        for (int i = 0; i < n; i++) {
+            ratings[i] += BASE_RATING - mean;
+        }
+        return ratings;
+    }
+
+    long[] wins() {
+        long[] copy = new long[wins.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = wins.get(i);
+        }
+        return copy;
+    }
+
+    void printSummary(double seconds) {
+        int n = names.length;
+        long[] wins = wins();
+        double[] ratings = ratings(wins, n);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> -ratings[i]));
+
+        long played = pairs.length * games;
+        System.out.printf(Locale.ROOT, "rules:      %dx%d, %d ships, %s%n", config.getWidth(), config.getHeight(),
+                config.getFleet().length, config.getAdjacency());
+        System.out.printf(Locale.ROOT, "games:      %d in %.2f s, %d per pair%n%n", played, seconds, games);
+        System.out.printf(Locale.ROOT, "%-10s %6s %7s %10s %10s %10s %10s%n",
+                "strategy", "elo", "wins", "cpu us/mv", "wall us/mv", "p99 us", "max us");
+        for (int i : order) {
+            long won = 0;
+            long total = 0;
+            for (int j = 0; j < n; j++) {
+                won += wins[i * n + j];
+                total += wins[i * n + j] + wins[j * n + i];
+            }
+            Histogram moves = moveMicros[i];
+            long count = Math.max(1, moves.count());
+            System.out.printf(Locale.ROOT, "%-10s %6.0f %6.2f%% %10.1f %10.1f %10d %10d%n", names[i], ratings[i],
+                    100.0 * won / Math.max(1, total), cpuNanos.get(i) / 1000.0 / count,
+                    wallNanos.get(i) / 1000.0 / count, moves.percentile(99), moves.max());
+        }
+
+        System.out.printf(Locale.ROOT, "%nwins of row against column:%n%-10s", "");
+        for (int j : order) {
+            System.out.printf(Locale.ROOT, " %10s", names[j]);
+        }
+        System.out.println();
+        for (int i : order) {
+            System.out.printf(Locale.ROOT, "%-10s", names[i]);
+            for (int j : order) {
+                System.out.printf(Locale.ROOT, " %10s", i == j ? "-" : String.valueOf(wins[i * n + j]));
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AllocationTest {
+    @Test
+    public void resetGamesAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Random random = new Random(1);
+        Game game = new Game(random);
+        Opponent[] sides = {new Opponent(Difficulty.NORMAL, random), new Opponent(Difficulty.HARD, random)};
+        // Warm up until every board owns its ships and the hot paths are compiled.
+        for (int i = 0; i < 2000; i++) {
+            play(game, sides, random);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 500; i++) {
+            play(game, sides, random);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        // Some slack for the measurement itself.
+        assertTrue(allocated + " bytes allocated over 500 games", allocated < 4096);
+    }
+
+    @Test
+    public void resetDealsTheSameGameAsANewOne() {
+        Game reused = new Game(new Random(2));
+        reused.reset(new Random(3));
+        Game fresh = new Game(new Random(3));
+        for (int side = 0; side < 2; side++) {
+            Board a = side == 0 ? reused.getPlayerBoard() : reused.getOpponentBoard();
+            Board b = side == 0 ? fresh.getPlayerBoard() : fresh.getOpponentBoard();
+            for (int i = 0; i < a.getShips().size(); i++) {
+                Ship x = a.getShips().get(i);
+                Ship y = b.getShips().get(i);
+                assertEquals(y.getSize(), x.getSize());
+                assertEquals(y.getRow(), x.getRow());
+                assertEquals(y.getCol(), x.getCol());
+                assertEquals(y.isVertical(), x.isVertical());
+            }
+        }
+        assertTrue(reused.isPlayerTurn());
+        assertFalse(reused.isOver());
+    }
+
+    private static void play(Game game, Opponent[] sides, Random random) {
+        game.reset(random);
+        sides[0].reset();
+        sides[1].reset();
+        while (!game.isOver()) {
+            Opponent shooter = sides[game.isPlayerTurn() ? 0 : 1];
+            int cell = shooter.nextShot(game.getDefendingBoard());
+            int row = cell / game.getConfig().getWidth();
+            int col = cell % game.getConfig().getWidth();
+            shooter.onShot(row, col, game.fire(row, col));
+        }
+    }
+}
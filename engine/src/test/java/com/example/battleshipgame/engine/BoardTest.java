@@ -0,0 +1,160 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BoardTest {
+    @Test
+    public void sinkingShipMarksMissesAround() {
+        Board board = new Board();
+        board.addShip(new Ship(2, 0, 0, false));
+
+        assertEquals(ShotResult.HIT, board.shoot(0, 0));
+        assertEquals(AttackResult.UNKNOWN, board.getAttackResult(1, 0));
+        assertEquals(1, board.getChanges().size());
+        assertEquals(ShotResult.SUNK, board.shoot(0, 1));
+        assertEquals(5, board.getChanges().size());
+        assertEquals(board.cell(0, 1), board.getChanges().getCell(0));
+        assertEquals(AttackResult.MISS, board.getAttackResult(1, 0));
+        assertEquals(AttackResult.MISS, board.getAttackResult(0, 2));
+        assertEquals(AttackResult.MISS, board.getAttackResult(1, 2));
+        assertEquals(AttackResult.UNKNOWN, board.getAttackResult(2, 0));
+        assertEquals(ShotResult.REPEAT, board.shoot(1, 1));
+        assertEquals(0, board.getChanges().size());
+        assertTrue(board.areAllShipsDestroyed());
+    }
+
+    @Test
+    public void shipsMayNotTouch() {
+        Board board = new Board();
+        board.addShip(new Ship(3, 4, 4, true));
+
+        assertFalse(board.canPlaceShip(3, 3, 1, false));
+        assertFalse(board.canPlaceShip(7, 5, 2, false));
+        assertFalse(board.canPlaceShip(0, 9, 2, false));
+        assertTrue(board.canPlaceShip(8, 4, 2, false));
+    }
+
+    @Test
+    public void shipsMustStayOnTheBoard() {
+        Board board = new Board();
+
+        assertTrue(board.canPlaceShip(0, 6, 4, false));
+        assertFalse(board.canPlaceShip(0, 7, 4, false));
+        assertTrue(board.canPlaceShip(6, 9, 4, true));
+        assertFalse(board.canPlaceShip(7, 9, 4, true));
+        assertTrue(board.canPlaceShip(9, 9, 1, false));
+        assertFalse(board.canPlaceShip(-1, 0, 1, false));
+        assertFalse(board.canPlaceShip(0, 10, 1, true));
+        assertFalse(board.canPlaceShip(0, 0, 0, false));
+    }
+
+    @Test
+    public void adjacencyRuleDecidesWhatMayTouch() {
+        for (AdjacencyRule rule : AdjacencyRule.values()) {
+            Board board = new Board(new GameConfig(10, 10, new int[]{2, 1}, rule));
+            board.addShip(new Ship(2, 4, 4, false));
+
+            assertFalse(rule + " overlap", board.canPlaceShip(4, 5, 1, false));
+            assertEquals(rule + " edge", rule == AdjacencyRule.TOUCHING_ALLOWED, board.canPlaceShip(4, 6, 1, false));
+            assertEquals(rule + " corner", rule != AdjacencyRule.NO_CONTACT, board.canPlaceShip(3, 3, 1, false));
+            assertTrue(rule + " apart", board.canPlaceShip(4, 7, 1, false));
+        }
+    }
+
+    @Test
+    public void everyLegalPlacementIsEquallyLikely() {
+        // A two-cell ship on a 3x3 board has 6 horizontal and 6 vertical placements.
+        GameConfig config = new GameConfig(3, 3, new int[]{2}, AdjacencyRule.NO_CONTACT);
+        Board board = new Board(config);
+        Random random = new Random(5);
+        int[] counts = new int[2 * config.getCells()];
+        int games = 24_000;
+        for (int i = 0; i < games; i++) {
+            Fleet.generateShips(board, random);
+            Ship ship = board.getShips().get(0);
+            counts[(ship.isVertical() ? config.getCells() : 0) + board.cell(ship.getRow(), ship.getCol())]++;
+        }
+
+        int legal = 0;
+        for (int count : counts) {
+            if (count == 0) continue;
+            legal++;
+            // 2000 expected with a standard deviation of about 43.
+            assertTrue("count " + count, Math.abs(count - games / 12) < 250);
+        }
+        assertEquals(12, legal);
+    }
+
+    @Test
+    public void generatedFleetIsComplete() {
+        Board board = new Board();
+        Fleet.generateShips(board, new Random(42));
+
+        int cells = 0;
+        for (int row = 0; row < board.getHeight(); row++) {
+            for (int col = 0; col < board.getWidth(); col++) {
+                if (board.isShip(row, col)) cells++;
+            }
+        }
+        assertEquals(Fleet.SHIP_SIZES.length, board.getShips().size());
+        assertEquals(20, cells);
+    }
+
+    @Test
+    public void gameEndsWhenFleetDestroyed() {
+        Game game = new Game(new Random(7));
+        Opponent first = new Opponent(Difficulty.NORMAL, new Random(1));
+        Opponent second = new Opponent(Difficulty.EASY, new Random(2));
+
+        int shots = 0;
+        while (!game.isOver()) {
+            Opponent shooter = game.isPlayerTurn() ? first : second;
+            int cell = shooter.nextShot(game.getDefendingBoard());
+            int row = cell / game.getConfig().getWidth();
+            int col = cell % game.getConfig().getWidth();
+            shooter.onShot(row, col, game.fire(row, col));
+            shots++;
+        }
+        assertTrue(shots <= 2 * game.getConfig().getCells());
+        assertTrue(game.getPlayerBoard().areAllShipsDestroyed() || game.getOpponentBoard().areAllShipsDestroyed());
+    }
+
+    @Test
+    public void largeBoardWithTouchingShips() {
+        int[] fleet = new int[400];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = 1 + i % 6;
+        }
+        GameConfig config = new GameConfig(130, 100, fleet, AdjacencyRule.TOUCHING_ALLOWED);
+        Board board = new Board(config);
+        Fleet.generateShips(board, new Random(3));
+        assertEquals(fleet.length, board.getShips().size());
+
+        Ship ship = board.getShips().get(0);
+        for (int i = 0; i < ship.getSize() - 1; i++) {
+            int row = ship.getRow() + (ship.isVertical() ? i : 0);
+            int col = ship.getCol() + (ship.isVertical() ? 0 : i);
+            assertEquals(ShotResult.HIT, board.shoot(row, col));
+        }
+        assertEquals(ShotResult.SUNK, board.shoot(ship.getLastRow(), ship.getLastCol()));
+        assertEquals(1, board.getChanges().size());
+        assertFalse(board.areAllShipsDestroyed());
+    }
+
+    @Test
+    public void edgeContactRuleAllowsCorners() {
+        Board board = new Board(new GameConfig(10, 10, new int[]{2, 2}, AdjacencyRule.NO_EDGE_CONTACT));
+        board.addShip(new Ship(2, 0, 0, false));
+
+        assertTrue(board.canPlaceShip(1, 2, 2, false));
+        assertFalse(board.canPlaceShip(1, 1, 2, false));
+        board.shoot(0, 0);
+        board.shoot(0, 1);
+        assertEquals(AttackResult.MISS, board.getAttackResult(1, 0));
+        assertEquals(AttackResult.UNKNOWN, board.getAttackResult(1, 2));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EndgameSolverTest {
+    @Test
+    public void picksTheShotWithFewestExpectedMisses() {
+        // A two-cell ship somewhere on a 1x4 strip: shooting an end cell misses 1 time in 1 on
+        // average, shooting a middle one 2 times in 3.
+        GameConfig strip = new GameConfig(4, 1, new int[]{2}, AdjacencyRule.TOUCHING_ALLOWED);
+        EndgameSolver solver = new EndgameSolver(strip, 1, 8, 1_000_000_000L);
+        for (long seed = 0; seed < 20; seed++) {
+            int cell = solver.nextShot(new Board(strip), new Random(seed));
+            assertTrue("shot " + cell, cell == 1 || cell == 2);
+        }
+    }
+
+    @Test
+    public void finishesTheLastShip() {
+        Board board = new Board(GameConfig.CLASSIC);
+        Fleet.generateShips(board, new Random(3));
+        Ship last = board.getShips().get(0);
+        for (int cell = 0; cell < GameConfig.CLASSIC.getCells(); cell++) {
+            if (!last.contains(cell / 10, cell % 10) && !board.isShot(cell / 10, cell % 10)) {
+                board.shoot(cell / 10, cell % 10);
+            }
+        }
+
+        EndgameSolver solver = new EndgameSolver(GameConfig.CLASSIC, 2, 10, 1_000_000_000L);
+        while (!board.areAllShipsDestroyed()) {
+            int cell = solver.nextShot(board, new Random(1));
+            assertTrue(last.contains(cell / 10, cell % 10));
+            board.shoot(cell / 10, cell % 10);
+        }
+    }
+
+    @Test
+    public void staysOutOfTheMiddleGame() {
+        EndgameSolver solver = new EndgameSolver(GameConfig.CLASSIC, 2, 10, 1_000_000_000L);
+        assertEquals(-1, solver.nextShot(new Board(GameConfig.CLASSIC), new Random(1)));
+    }
+
+    @Test
+    public void sizesItsScratchByDepthNotFleet() {
+        // The app's 100x100 board carries the classic fleet a hundred times over: 1000 ships.
+        int[] fleet = new int[Fleet.SHIP_SIZES.length * 100];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = Fleet.SHIP_SIZES[i % Fleet.SHIP_SIZES.length];
+        }
+        GameConfig large = new GameConfig(100, 100, fleet, AdjacencyRule.NO_CONTACT);
+        EndgameSolver[] solvers = new EndgameSolver[50];
+        for (int i = 0; i < solvers.length; i++) {
+            solvers[i] = new EndgameSolver(large, 2, 10, 1_000_000_000L);
+        }
+        assertEquals(-1, solvers[0].nextShot(new Board(large), new Random(1)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FleetCommitmentTest {
+    @Test
+    public void honestAnswersVerify() {
+        Board board = fleet(GameConfig.CLASSIC, 3);
+        FleetCommitment commitment = FleetCommitment.of(board, new Random(4));
+        assertEquals(FleetCommitment.SALT_SIZE + 13, commitment.getOpening().length);
+
+        ShotLog log = shootAll(board);
+        assertTrue(FleetCommitment.verify(board.getConfig(), commitment.getHash(), commitment.getOpening(), log));
+    }
+
+    @Test
+    public void aLieIsCaught() {
+        Board board = fleet(GameConfig.CLASSIC, 5);
+        FleetCommitment commitment = FleetCommitment.of(board, new Random(6));
+        ShotLog honest = shootAll(board);
+
+        // The same answers, except the first hit is reported as a miss.
+        ShotLog log = new ShotLog();
+        boolean lied = false;
+        for (int i = 0; i < honest.size(); i++) {
+            boolean lie = !lied && honest.result(i) == ShotResult.HIT;
+            log.record(honest.cell(i), lie ? ShotResult.MISS : honest.result(i));
+            lied |= lie;
+        }
+        assertFalse(FleetCommitment.verify(board.getConfig(), commitment.getHash(), commitment.getOpening(), log));
+    }
+
+    @Test
+    public void aSwappedFleetIsCaught() {
+        Board board = fleet(GameConfig.CLASSIC, 7);
+        FleetCommitment commitment = FleetCommitment.of(board, new Random(8));
+        Board other = fleet(GameConfig.CLASSIC, 9);
+        FleetCommitment swapped = FleetCommitment.of(other, new Random(8));
+
+        ShotLog log = shootAll(other);
+        assertFalse(FleetCommitment.verify(board.getConfig(), commitment.getHash(), swapped.getOpening(), log));
+        assertTrue(FleetCommitment.verify(board.getConfig(), swapped.getHash(), swapped.getOpening(), log));
+    }
+
+    private static Board fleet(GameConfig config, long seed) {
+        Board board = new Board(config);
+        Fleet.generateShips(board, new Random(seed));
+        return board;
+    }
+
+    private static ShotLog shootAll(Board board) {
+        ShotLog log = new ShotLog();
+        for (int cell = 0; cell < board.getConfig().getCells(); cell++) {
+            ShotResult result = board.shoot(cell / board.getWidth(), cell % board.getWidth());
+            if (result != ShotResult.REPEAT) log.record(cell, result);
+        }
+        return log;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GameSnapshotTest {
+    @Test
+    public void classicGameRoundTrips() {
+        Game game = new Game(new Random(11));
+        Opponent opponent = new Opponent(Difficulty.NORMAL, new Random(12));
+        play(game, opponent, 37);
+
+        byte[] bytes = GameSnapshot.toBytes(game, opponent);
+        assertTrue(bytes.length <= 60);
+        GameSnapshot restored = GameSnapshot.read(ByteBuffer.wrap(bytes), new Random(13));
+
+        assertSameGame(game, restored.getGame());
+        assertEquals(Difficulty.NORMAL, restored.getOpponent().getDifficulty());
+        assertEquals(opponent.getLastHit(game.getPlayerBoard()),
+                restored.getOpponent().getLastHit(restored.getGame().getPlayerBoard()));
+        assertArrayEquals(bytes, GameSnapshot.toBytes(restored.getGame(), restored.getOpponent()));
+    }
+
+    @Test
+    public void customRulesRoundTrip() {
+        GameConfig config = new GameConfig(70, 33, new int[]{5, 4, 3, 3, 2, 1}, AdjacencyRule.NO_EDGE_CONTACT);
+        Game game = new Game(config, new Random(21));
+        Opponent opponent = new Opponent(Difficulty.HARD, config, new Random(22));
+        play(game, opponent, 500);
+
+        byte[] bytes = GameSnapshot.toBytes(game, opponent);
+        GameSnapshot restored = GameSnapshot.read(ByteBuffer.wrap(bytes), new Random(23));
+
+        assertEquals(config, restored.getGame().getConfig());
+        assertSameGame(game, restored.getGame());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedSnapshotIsRejected() {
+        Game game = new Game(new Random(31));
+        byte[] bytes = GameSnapshot.toBytes(game, new Opponent(Difficulty.EASY, new Random(32)));
+        GameSnapshot.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length / 2)), new Random(33));
+    }
+
+    private static void play(Game game, Opponent opponent, int shots) {
+        for (int i = 0; i < shots && !game.isOver(); i++) {
+            int cell = opponent.nextShot(game.getDefendingBoard());
+            int row = cell / game.getConfig().getWidth();
+            int col = cell % game.getConfig().getWidth();
+            opponent.onShot(row, col, game.fire(row, col));
+        }
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertEquals(expected.isPlayerTurn(), actual.isPlayerTurn());
+        assertEquals(expected.isOver(), actual.isOver());
+        Board[] left = {expected.getPlayerBoard(), expected.getOpponentBoard()};
+        Board[] right = {actual.getPlayerBoard(), actual.getOpponentBoard()};
+        for (int side = 0; side < 2; side++) {
+            assertArrayEquals(left[side].hits.words, right[side].hits.words);
+            assertArrayEquals(left[side].misses.words, right[side].misses.words);
+            assertArrayEquals(left[side].sunk.words, right[side].sunk.words);
+            assertArrayEquals(left[side].sunkBySize, right[side].sunkBySize);
+            assertEquals(left[side].getShips().size(), right[side].getShips().size());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OpeningBookTest {
+    private static final int[] LINE = {44, 55, 22, 77, 0};
+
+    @Test
+    public void linesSurviveARoundTrip() {
+        OpeningBook book = OpeningBook.read(ByteBuffer.wrap(OpeningBook.write(Collections.singletonMap(GameConfig.CLASSIC, LINE))));
+        assertArrayEquals(LINE, book.line(GameConfig.CLASSIC));
+        assertEquals(0, book.line(new GameConfig(12, 12, GameConfig.CLASSIC.getFleet(), GameConfig.CLASSIC.getAdjacency())).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedDataIsRejected() {
+        byte[] data = OpeningBook.write(Collections.singletonMap(GameConfig.CLASSIC, LINE));
+        OpeningBook.read(ByteBuffer.wrap(data, 0, data.length - 1).slice());
+    }
+
+    @Test
+    public void strongOpponentsFollowTheLineUntilTheFirstHit() {
+        OpeningBook.install(OpeningBook.read(ByteBuffer.wrap(OpeningBook.write(Collections.singletonMap(GameConfig.CLASSIC, LINE)))));
+        try {
+            Board board = new Board(GameConfig.CLASSIC);
+            Opponent opponent = new Opponent(Difficulty.HARD, GameConfig.CLASSIC, new Random(1));
+            for (int cell : LINE) {
+                assertEquals(cell, opponent.nextShot(board));
+                // An empty board: every shot misses.
+                opponent.onShot(cell / 10, cell % 10, board.shoot(cell / 10, cell % 10));
+            }
+            assertFalse(contains(LINE, opponent.nextShot(board)));
+        } finally {
+            OpeningBook.install(OpeningBook.EMPTY);
+        }
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) return true;
+        }
+        return false;
+    }
+}
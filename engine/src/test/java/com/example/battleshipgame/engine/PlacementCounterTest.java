@@ -0,0 +1,52 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PlacementCounterTest {
+    @Test
+    public void matchesTheScalarLoop() {
+        Random random = new Random(3);
+        // 64 and 130 columns take rows of one full and of three words.
+        int[][] sizes = {{10, 10}, {1, 7}, {64, 5}, {70, 9}, {130, 12}};
+        for (int[] board : sizes) {
+            int width = board[0];
+            int height = board[1];
+            PlacementCounter counter = new PlacementCounter(width, height, 6);
+            int[] expected = new int[width * height];
+            int[] actual = new int[width * height];
+            for (int round = 0; round < 5; round++) {
+                BitGrid free = new BitGrid(width, height);
+                for (int cell = 0; cell < width * height; cell++) {
+                    if (random.nextInt(5) != 0) {
+                        free.set(cell);
+                    }
+                }
+                for (int size = 1; size <= 6; size++) {
+                    PlacementCounter.countScalar(free, size, expected);
+                    counter.count(free, size, actual);
+                    assertArrayEquals(expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findsEveryOrigin() {
+        BitGrid free = new BitGrid(4, 3);
+        free.setRowRange(0, 0, 4);
+        free.setRowRange(1, 1, 3);
+        free.set(2, 1);
+        PlacementCounter counter = new PlacementCounter(4, 3, 3);
+        counter.count(free, 3, new int[12]);
+        assertTrue(counter.horizontal.get(0, 0));
+        assertTrue(counter.horizontal.get(0, 1));
+        assertTrue(counter.horizontal.get(1, 1));
+        assertEquals(3, counter.horizontal.cardinality());
+        assertTrue(counter.vertical.get(0, 1));
+        assertEquals(1, counter.vertical.cardinality());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.battleshipgame.engine;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+    @Test
+    public void replayReproducesEveryMove() throws IOException {
+        GameConfig config = new GameConfig(12, 9, new int[]{4, 3, 2, 2, 1}, AdjacencyRule.NO_CONTACT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MoveJournal journal = MoveJournal.start(Channels.newChannel(out), 99, config, Difficulty.HARD);
+
+        Random random = new Random(99);
+        Game game = new Game(config, random);
+        Opponent player = new Opponent(Difficulty.NORMAL, config, random);
+        Opponent opponent = new Opponent(Difficulty.HARD, config, random);
+        List<byte[]> states = new ArrayList<>();
+        states.add(GameSnapshot.toBytes(game, null));
+        while (!game.isOver()) {
+            Opponent shooter = game.isPlayerTurn() ? player : opponent;
+            int cell = shooter.nextShot(game.getDefendingBoard());
+            shooter.onShot(cell / 12, cell % 12, game.fire(cell / 12, cell % 12));
+            journal.append(cell);
+            states.add(GameSnapshot.toBytes(game, null));
+        }
+        journal.close();
+
+        Replay replay = new Replay(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(99, replay.getSeed());
+        assertEquals(config, replay.getConfig());
+        assertEquals(Difficulty.HARD, replay.getDifficulty());
+        assertEquals(states.size() - 1, replay.getMoveCount());
+        for (int move = 0; move < states.size(); move++) {
+            assertArrayEquals(states.get(move), GameSnapshot.toBytes(replay.seek(move), null));
+        }
+        assertTrue(replay.seek(replay.getMoveCount()).isOver());
+    }
+
+    @Test
+    public void unflushedAndTornMovesAreDropped() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MoveJournal journal = MoveJournal.start(Channels.newChannel(out), 5, GameConfig.CLASSIC, Difficulty.EASY);
+        for (int cell = 0; cell < MoveJournal.BATCH_MOVES + 3; cell++) {
+            journal.append(cell);
+        }
+        assertEquals(MoveJournal.BATCH_MOVES, new Replay(ByteBuffer.wrap(out.toByteArray())).getMoveCount());
+
+        byte[] torn = Arrays.copyOf(out.toByteArray(), out.size() + 1);
+        torn[torn.length - 1] = (byte) 0x80;
+        assertEquals(MoveJournal.BATCH_MOVES, new Replay(ByteBuffer.wrap(torn)).getMoveCount());
+    }
+}
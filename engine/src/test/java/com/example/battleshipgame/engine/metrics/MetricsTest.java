@@ -0,0 +1,47 @@
+package com.example.battleshipgame.engine.metrics;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+    @Test
+    public void nothingIsRecordedWhileDisabled() {
+        Timer timer = Metrics.timer("disabled");
+        Counter counter = Metrics.counter("disabledCount");
+        Metrics.setEnabled(false);
+
+        long startedAt = timer.start();
+        counter.increment();
+        timer.stop(startedAt);
+
+        assertEquals(0, startedAt);
+        assertEquals(0, timer.snapshot().count());
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void enabledTimersAndCountersShowUpInTheDump() throws IOException {
+        Timer timer = Metrics.timer("enabled");
+        Counter counter = Metrics.counter("enabledCount");
+        Metrics.setEnabled(true);
+        try {
+            for (int i = 0; i < 100; i++) {
+                timer.stop(timer.start());
+                timer.record(1000);
+            }
+            counter.increment();
+        } finally {
+            Metrics.setEnabled(false);
+        }
+
+        assertEquals(200, timer.snapshot().count());
+        assertEquals(1000, timer.snapshot().max());
+        StringBuilder json = new StringBuilder();
+        Metrics.writeJson(json);
+        assertTrue(json.toString(), json.toString().contains("\"enabled\":{\"count\":200,"));
+        assertTrue(json.toString(), json.toString().contains("\"enabledCount\":1"));
+    }
+}
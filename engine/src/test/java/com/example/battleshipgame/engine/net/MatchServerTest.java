@@ -0,0 +1,170 @@
+package com.example.battleshipgame.engine.net;
+
+import com.example.battleshipgame.engine.AttackResult;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Difficulty;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.Opponent;
+import com.example.battleshipgame.engine.ShotResult;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MatchServerTest {
+    @Test
+    public void twoBotsPlayAMatchOverLoopback() throws Exception {
+        MatchServer server = new MatchServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                GameConfig.CLASSIC, 2);
+        Thread serverThread = new Thread(server, "match-server");
+        serverThread.start();
+
+        CountDownLatch finished = new CountDownLatch(2);
+        Bot first = new Bot(server.getPort(), 1, finished);
+        Bot second = new Bot(server.getPort(), 2, finished);
+        assertTrue(finished.await(60, TimeUnit.SECONDS));
+
+        assertTrue(first.won != second.won);
+        assertEquals(0, first.client.getUnacknowledged());
+        assertTrue(first.client.isEnemyFleetVerified());
+        assertTrue(second.client.isEnemyFleetVerified());
+        assertSameView(second.client.getOwnBoard(), first.client.getEnemyBoard());
+        assertSameView(first.client.getOwnBoard(), second.client.getEnemyBoard());
+        Bot winner = first.won ? first : second;
+        assertTrue((winner == first ? second : first).client.getOwnBoard().areAllShipsDestroyed());
+
+        first.client.close();
+        second.client.close();
+        server.close();
+        serverThread.join(5000);
+    }
+
+    @Test
+    public void shotsOutOfTurnAreRejected() throws Exception {
+        MatchServer server = new MatchServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                GameConfig.CLASSIC, 0);
+        Thread serverThread = new Thread(server, "match-server");
+        serverThread.start();
+
+        BlockingQueue<ShotResult> results = new ArrayBlockingQueue<>(4);
+        Recorder recorder = new Recorder(results);
+        NetClient a = NetClient.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()), Runnable::run, recorder);
+        NetClient b = NetClient.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()), Runnable::run, recorder);
+        assertTrue(recorder.ready.await(10, TimeUnit.SECONDS));
+
+        NetClient late = a.getSide() == 1 ? a : b;
+        late.shoot(0, 0);
+        assertEquals(ShotResult.REPEAT, results.poll(10, TimeUnit.SECONDS));
+        assertEquals(AttackResult.UNKNOWN, late.getEnemyBoard().getAttackResult(0, 0));
+
+        a.close();
+        b.close();
+        server.close();
+        serverThread.join(5000);
+    }
+
+    private static void assertSameView(Board actual, Board view) {
+        for (int row = 0; row < actual.getHeight(); row++) {
+            for (int col = 0; col < actual.getWidth(); col++) {
+                assertEquals(actual.getAttackResult(row, col), view.getAttackResult(row, col));
+            }
+        }
+    }
+
+    // Plays its side with the HARD strategy, entirely on the client's I/O thread.
+    private static final class Bot implements NetClient.Listener {
+        final NetClient client;
+        final CountDownLatch finished;
+        final Random random;
+        Opponent strategy;
+        volatile boolean won;
+
+        Bot(int port, long seed, CountDownLatch finished) throws IOException {
+            this.finished = finished;
+            this.random = new Random(seed);
+            this.client = NetClient.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), Runnable::run, this);
+        }
+
+        @Override
+        public void onReady(NetClient client) {
+            strategy = new Opponent(Difficulty.HARD, client.getEnemyBoard().getConfig(), random);
+            if (client.isMyTurn()) shoot();
+        }
+
+        @Override
+        public void onShotResult(int row, int col, ShotResult result) {
+            if (result == ShotResult.REPEAT) shoot();
+        }
+
+        @Override
+        public void onIncomingShot(int row, int col, ShotResult result) {
+            if (!client.getOwnBoard().areAllShipsDestroyed()) shoot();
+        }
+
+        @Override
+        public void onGameOver(boolean won) {
+            this.won = won;
+            finished.countDown();
+        }
+
+        @Override
+        public void onDisconnected(IOException cause) {
+        }
+
+        @Override
+        public void onProtocolError(String message) {
+            throw new AssertionError(message);
+        }
+
+        private void shoot() {
+            Board enemy = client.getEnemyBoard();
+            int cell = strategy.nextShot(enemy);
+            client.shoot(cell / enemy.getWidth(), cell % enemy.getWidth());
+        }
+    }
+
+    private static final class Recorder implements NetClient.Listener {
+        final CountDownLatch ready = new CountDownLatch(2);
+        final BlockingQueue<ShotResult> results;
+
+        Recorder(BlockingQueue<ShotResult> results) {
+            this.results = results;
+        }
+
+        @Override
+        public void onReady(NetClient client) {
+            ready.countDown();
+        }
+
+        @Override
+        public void onShotResult(int row, int col, ShotResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onIncomingShot(int row, int col, ShotResult result) {
+        }
+
+        @Override
+        public void onGameOver(boolean won) {
+        }
+
+        @Override
+        public void onDisconnected(IOException cause) {
+        }
+
+        @Override
+        public void onProtocolError(String message) {
+            throw new AssertionError(message);
+        }
+    }
+}
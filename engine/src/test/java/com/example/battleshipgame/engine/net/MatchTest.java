@@ -0,0 +1,135 @@
+package com.example.battleshipgame.engine.net;
+
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Fleet;
+import com.example.battleshipgame.engine.FleetCommitment;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.Ship;
+import com.example.battleshipgame.engine.ShotResult;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MatchTest {
+    @Test
+    public void honestPlayersFinishUndisputed() {
+        Match match = play(new Player(0, 1, false), new Player(1, 2, false));
+        assertTrue(match.isOver());
+        assertFalse(match.isDisputed());
+        assertNotEquals(-1, match.getWinner());
+    }
+
+    @Test
+    public void aDefenderDenyingEveryHitLoses() {
+        Player honest = new Player(0, 3, false);
+        Player liar = new Player(1, 4, true);
+        Match match = play(honest, liar);
+        assertTrue(match.isOver());
+        assertTrue(match.isDisputed());
+        assertEquals(0, match.getWinner());
+        assertTrue(honest.won);
+        assertFalse(liar.won);
+    }
+
+    @Test
+    public void aSunkShipOffTheHitsIsAForfeit() {
+        // Side 1 answers the first shot with a ship it never said was hit.
+        Player forger = new Player(1, 6, false);
+        forger.forgeSunkShip = true;
+        Match match = play(new Player(0, 5, false), forger);
+        assertTrue(match.isOver());
+        assertTrue(match.isDisputed());
+        assertEquals(0, match.getWinner());
+        assertEquals(1, forger.answered);
+    }
+
+    private static Match play(Player first, Player second) {
+        Match match = new Match(GameConfig.CLASSIC);
+        Player[] players = {first, second};
+        ArrayDeque<int[]> frames = new ArrayDeque<>();
+        Match.FrameSink out = (side, type, flags, value, cell) -> frames.add(new int[]{side, type, flags, value, cell});
+        match.start(out);
+        deliverAll(match, players, frames, out);
+        return match;
+    }
+
+    // Hands every frame the server sent to its player, whose replies go straight back in.
+    private static void deliverAll(Match match, Player[] players, ArrayDeque<int[]> frames, Match.FrameSink out) {
+        for (int[] f; (f = frames.poll()) != null; ) {
+            int side = f[0];
+            players[side].handle((byte) f[1], f[2], f[4],
+                    (to, type, flags, value, cell) -> match.onFrame(side, type, flags, value, cell, out));
+        }
+    }
+
+    // A client that shoots the cells in order and, if it is a liar, answers every shot MISS.
+    private static final class Player {
+        final int side;
+        final Random random;
+        final boolean liar;
+        final Board board = new Board(GameConfig.CLASSIC);
+        FleetCommitment commitment;
+        boolean forgeSunkShip;
+        int answered;
+        int next;
+        boolean won;
+
+        Player(int side, long seed, boolean liar) {
+            this.side = side;
+            this.random = new Random(seed);
+            this.liar = liar;
+        }
+
+        void handle(byte type, int flags, int cell, Match.FrameSink server) {
+            switch (type) {
+                case Protocol.FLEET:
+                    if ((flags & Protocol.LAST) != 0) {
+                        Fleet.generateShips(board, random);
+                        commitment = FleetCommitment.of(board, random);
+                        Protocol.sendBlob(server, side, Protocol.COMMIT, commitment.getHash());
+                    }
+                    break;
+                case Protocol.READY:
+                    if (side == 0) fire(server);
+                    break;
+                case Protocol.RESULT:
+                    if (flags == ShotResult.REPEAT.ordinal()) fire(server);
+                    break;
+                case Protocol.INCOMING: {
+                    answered++;
+                    if (forgeSunkShip) {
+                        server.send(side, Protocol.ANSWER, ShotResult.SUNK.ordinal(), 0, cell);
+                        server.send(side, Protocol.SHIP, Protocol.SUNK_SHIP, 3, cell);
+                        break;
+                    }
+                    ShotResult result = board.shoot(cell / 10, cell % 10);
+                    if (liar) result = ShotResult.MISS;
+                    server.send(side, Protocol.ANSWER, result.ordinal(), 0, cell);
+                    if (result == ShotResult.SUNK) {
+                        Ship ship = board.getLastSunk();
+                        server.send(side, Protocol.SHIP, (ship.isVertical() ? Protocol.VERTICAL : 0) | Protocol.SUNK_SHIP,
+                                ship.getSize(), board.cell(ship.getRow(), ship.getCol()));
+                    }
+                    if (!board.areAllShipsDestroyed()) fire(server);
+                    break;
+                }
+                case Protocol.END:
+                    Protocol.sendBlob(server, side, Protocol.REVEAL, commitment.getOpening());
+                    break;
+                case Protocol.GAME_OVER:
+                    won = flags == 1;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void fire(Match.FrameSink server) {
+            if (next < 100) server.send(side, Protocol.SHOT, 0, next, next++);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.battleshipgame.engine.sim;
+
+import com.example.battleshipgame.engine.GameConfig;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TournamentTest {
+    @Test
+    public void evenResultsGiveEvenRatings() {
+        double[] ratings = Tournament.ratings(new long[]{0, 50, 50, 0}, 2);
+        assertEquals(1500, ratings[0], 1e-6);
+        assertEquals(1500, ratings[1], 1e-6);
+    }
+
+    @Test
+    public void ratingGapMatchesTheWinRate() {
+        // 7 wins to 2 plus the added draw is 7.5 to 2.5, which Elo puts 400 * log10(3) apart.
+        double[] ratings = Tournament.ratings(new long[]{0, 7, 2, 0}, 2);
+        assertEquals(400 * Math.log10(3), ratings[0] - ratings[1], 1e-6);
+        assertEquals(3000, ratings[0] + ratings[1], 1e-6);
+    }
+
+    @Test
+    public void everyPairPlaysEveryGame() throws InterruptedException {
+        Tournament tournament = new Tournament(GameConfig.CLASSIC, new String[]{"easy", "normal", "hard"}, 20, 1);
+        tournament.run(2);
+        long[] wins = tournament.wins();
+        for (int i = 0; i < 3; i++) {
+            for (int j = i + 1; j < 3; j++) {
+                assertEquals(20, wins[i * 3 + j] + wins[j * 3 + i]);
+            }
+        }
+        assertTrue(wins[2 * 3] > wins[2]);
+    }
+}
@@ -0,0 +1,26 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":engine"))
+    testImplementation(libs.junit)
+}
+
+// ./gradlew :server:run --args="--port 47100 --shards 8"
+application {
+    mainClass.set("com.example.battleshipgame.server.GameServer")
+}
+
+// ./gradlew :server:loadtest --args="--host 127.0.0.1 --port 47100 --bots 2000 --seconds 30"
+tasks.register<JavaExec>("loadtest") {
+    group = "application"
+    description = "Plays bot clients against a running game server and reports matches/s and move latency."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.battleshipgame.server.LoadGenerator")
+}
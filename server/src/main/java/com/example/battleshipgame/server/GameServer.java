@@ -0,0 +1,158 @@
+package com.example.battleshipgame.server;
+
+import com.example.battleshipgame.engine.GameConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Headless host for many concurrent matches over the engine.net protocol. An acceptor thread
+// pairs connections in arrival order and hands each pair to one of N shard event loops
+// round-robin; a match and both its sockets then belong to that shard alone, so nothing is
+// locked. Per-match state is a Match over two engine Boards holding what each side answered,
+// which are BitGrids and short arrays rather than objects per cell. A shard whose selector
+// fails is replaced before it would be handed its next pair.
+//
+//   ./gradlew :server:run --args="--port 47100 --shards 8"
+public final class GameServer implements Closeable {
+    private static final Logger LOG = Logger.getLogger(GameServer.class.getName());
+
+    private final ServerSocketChannel server;
+    private final GameConfig config;
+    private final Shard[] shards;
+    // Shards replaced after their selector failed, kept for their counters.
+    private final List<Shard> retired = new CopyOnWriteArrayList<>();
+    private final Thread[] threads;
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    public GameServer(InetSocketAddress address, int shardCount, GameConfig config) throws IOException {
+        this.server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        this.config = config;
+        this.shards = new Shard[shardCount];
+        this.threads = new Thread[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(config);
+            threads[i] = new Thread(shards[i], "shard-" + i);
+        }
+        this.acceptor = new Thread(this::accept, "acceptor");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 47100;
+        int shards = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--shards":
+                    shards = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        GameServer server = new GameServer(new InetSocketAddress(port), shards, GameConfig.CLASSIC);
+        server.start();
+        System.out.printf(Locale.ROOT, "listening on %d with %d shards%n", server.getPort(), shards);
+        long lastFinished = 0;
+        while (true) {
+            Thread.sleep(5000);
+            long finished = server.finished();
+            System.out.printf(Locale.ROOT, "active %d, finished %d (%.0f/s), abandoned %d, disputed %d%n",
+                    server.active(), finished, (finished - lastFinished) / 5.0, server.abandoned(), server.disputed());
+            lastFinished = finished;
+        }
+    }
+
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public long finished() {
+        long total = 0;
+        for (Shard shard : shards) total += shard.finished();
+        for (Shard shard : retired) total += shard.finished();
+        return total;
+    }
+
+    public long abandoned() {
+        long total = 0;
+        for (Shard shard : shards) total += shard.abandoned();
+        for (Shard shard : retired) total += shard.abandoned();
+        return total;
+    }
+
+    public long disputed() {
+        long total = 0;
+        for (Shard shard : shards) total += shard.disputed();
+        for (Shard shard : retired) total += shard.disputed();
+        return total;
+    }
+
+    public int active() {
+        int total = 0;
+        for (Shard shard : shards) total += shard.active();
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    // Swaps a shard whose selector failed for a fresh one; its matches were closed when it stopped.
+    private void restart(int index) throws IOException {
+        Shard failed = shards[index];
+        LOG.log(Level.WARNING, "Shard " + index + " stopped, starting a new one", failed.failure());
+        retired.add(failed);
+        shards[index] = new Shard(config);
+        threads[index] = new Thread(shards[index], "shard-" + index);
+        threads[index].start();
+    }
+
+    private void accept() {
+        SocketChannel waiting = null;
+        int next = 0;
+        try {
+            while (!closed) {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                if (waiting == null) {
+                    waiting = channel;
+                    continue;
+                }
+                if (shards[next].failure() != null) {
+                    restart(next);
+                }
+                shards[next].submit(waiting, channel);
+                next = (next + 1) % shards.length;
+                waiting = null;
+            }
+        } catch (IOException e) {
+            if (!closed) throw new RuntimeException(e);
+        }
+    }
+}
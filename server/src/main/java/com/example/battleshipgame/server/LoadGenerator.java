@@ -0,0 +1,340 @@
+package com.example.battleshipgame.server;
+
+import com.example.battleshipgame.engine.AdjacencyRule;
+import com.example.battleshipgame.engine.Board;
+import com.example.battleshipgame.engine.Fleet;
+import com.example.battleshipgame.engine.FleetCommitment;
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.Ship;
+import com.example.battleshipgame.engine.ShotResult;
+import com.example.battleshipgame.engine.metrics.Histogram;
+import com.example.battleshipgame.engine.net.Match;
+import com.example.battleshipgame.engine.net.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps a fixed number of bot clients playing against a GameServer and reports sustained
+// finished matches per second and the latency from sending a SHOT to reading its RESULT.
+// Bots are spread over a few selector threads; each lays out a random fleet, commits to it,
+// answers from it and fires at its cells in a shuffled order, which keeps the client side
+// cheap enough not to be the bottleneck. A bot whose match ends
+// reconnects at once, so the server always has about bots / 2 matches running.
+//
+//   ./gradlew :server:loadtest --args="--host 127.0.0.1 --port 47100 --bots 2000 --seconds 30"
+public final class LoadGenerator {
+    private static final int REPEAT = ShotResult.REPEAT.ordinal();
+
+    private final InetSocketAddress address;
+    private final int bots;
+    private final int threads;
+    private final LongAdder matches = new LongAdder();
+    private volatile boolean recording;
+    private volatile boolean stopped;
+
+    LoadGenerator(InetSocketAddress address, int bots, int threads) {
+        this.address = address;
+        this.bots = bots;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = "127.0.0.1";
+        int port = 47100;
+        int bots = 1000;
+        int seconds = 30;
+        int warmup = 5;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[i + 1];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--bots":
+                    bots = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Report report = new LoadGenerator(new InetSocketAddress(host, port), bots, threads).run(warmup, seconds);
+        System.out.printf(Locale.ROOT, "bots:          %d on %d threads%n", bots, threads);
+        System.out.printf(Locale.ROOT, "matches:       %d in %d s (%.0f/s)%n", report.matches, seconds, report.matchesPerSecond());
+        System.out.printf(Locale.ROOT, "move latency:  %d moves, p50 %d us, p99 %d us, max %d us%n",
+                report.latency.count(), report.latency.percentile(50), report.latency.percentile(99), report.latency.max());
+    }
+
+    Report run(int warmupSeconds, int seconds) throws IOException, InterruptedException {
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(bots / threads + (i < bots % threads ? 1 : 0), i);
+            running[i] = new Thread(workers[i], "bots-" + i);
+            running[i].start();
+        }
+        Thread.sleep(warmupSeconds * 1000L);
+        recording = true;
+        Thread.sleep(seconds * 1000L);
+        recording = false;
+        stopped = true;
+
+        Histogram latency = new Histogram();
+        for (int i = 0; i < threads; i++) {
+            workers[i].selector.wakeup();
+            running[i].join();
+            latency.merge(workers[i].latency);
+        }
+        return new Report(matches.sum(), seconds, latency);
+    }
+
+    static final class Report {
+        final long matches;
+        final int seconds;
+        final Histogram latency;
+
+        Report(long matches, int seconds, Histogram latency) {
+            this.matches = matches;
+            this.seconds = seconds;
+            this.latency = latency;
+        }
+
+        double matchesPerSecond() {
+            return (double) matches / seconds;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final Selector selector;
+        final int count;
+        final SplittableRandom random;
+        // Fleet layouts and commitment salts; load bots need no secrecy.
+        final Random layouts;
+        final Histogram latency = new Histogram();
+
+        Worker(int count, int index) throws IOException {
+            this.selector = Selector.open();
+            this.count = count;
+            this.random = new SplittableRandom(index);
+            this.layouts = new Random(index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < count; i++) {
+                    connect(new Bot());
+                }
+                while (!stopped) {
+                    selector.select();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Bot bot = (Bot) key.attachment();
+                        try {
+                            if (key.isConnectable() && bot.channel.finishConnect()) {
+                                key.interestOps(SelectionKey.OP_READ);
+                            }
+                            if (key.isValid() && key.isReadable() && !read(bot)) {
+                                bot.channel.close();
+                                connect(bot);
+                            }
+                        } catch (IOException e) {
+                            bot.channel.close();
+                            connect(bot);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    try {
+                        key.channel().close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        private void connect(Bot bot) throws IOException {
+            if (stopped) return;
+            bot.reset();
+            bot.channel = SocketChannel.open();
+            bot.channel.configureBlocking(false);
+            bot.channel.socket().setTcpNoDelay(true);
+            boolean connected = bot.channel.connect(address);
+            bot.channel.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, bot);
+        }
+
+        // False when the server closed the connection.
+        private boolean read(Bot bot) throws IOException {
+            ByteBuffer in = bot.in;
+            if (bot.channel.read(in) == -1) {
+                return false;
+            }
+            in.flip();
+            bot.out.clear();
+            while (in.remaining() >= Protocol.FRAME_SIZE) {
+                byte type = in.get();
+                int flags = in.get() & 0xff;
+                int value = in.getShort() & 0xffff;
+                int cell = in.getInt();
+                handle(bot, type, flags, value, cell);
+            }
+            in.compact();
+            bot.out.flip();
+            while (bot.out.hasRemaining()) {
+                bot.channel.write(bot.out);
+            }
+            return true;
+        }
+
+        private void handle(Bot bot, byte type, int flags, int value, int cell) {
+            switch (type) {
+                case Protocol.WELCOME:
+                    bot.side = flags & 1;
+                    bot.adjacency = AdjacencyRule.values()[flags >>> 1];
+                    bot.width = value;
+                    bot.height = cell;
+                    bot.shuffle(value * cell, random);
+                    break;
+                case Protocol.FLEET:
+                    bot.addShips(value, cell);
+                    if ((flags & Protocol.LAST) != 0) {
+                        bot.layOut(layouts);
+                        Protocol.sendBlob(bot.sink, 0, Protocol.COMMIT, bot.commitment.getHash());
+                    }
+                    break;
+                case Protocol.READY:
+                    if (bot.side == 0) fire(bot);
+                    break;
+                case Protocol.RESULT:
+                    if (recording) {
+                        latency.record((System.nanoTime() - bot.sentAt) / 1000);
+                    }
+                    if (flags == REPEAT) fire(bot);
+                    break;
+                case Protocol.INCOMING:
+                    answer(bot, cell);
+                    if (!bot.board.areAllShipsDestroyed()) fire(bot);
+                    break;
+                case Protocol.END:
+                    Protocol.sendBlob(bot.sink, 0, Protocol.REVEAL, bot.commitment.getOpening());
+                    break;
+                case Protocol.GAME_OVER:
+                    // Counted once per match, by the winner.
+                    if (flags == 1 && recording) matches.increment();
+                    bot.over = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void answer(Bot bot, int cell) {
+            Board board = bot.board;
+            ShotResult result = board.shoot(cell / bot.width, cell % bot.width);
+            Protocol.put(bot.out, Protocol.ANSWER, result.ordinal(), 0, cell);
+            if (result == ShotResult.SUNK) {
+                Ship ship = board.getLastSunk();
+                Protocol.put(bot.out, Protocol.SHIP, (ship.isVertical() ? Protocol.VERTICAL : 0) | Protocol.SUNK_SHIP,
+                        ship.getSize(), board.cell(ship.getRow(), ship.getCol()));
+            }
+        }
+
+        private void fire(Bot bot) {
+            if (bot.over || bot.next == bot.order.length) return;
+            Protocol.put(bot.out, Protocol.SHOT, 0, bot.seq++ & 0xffff, bot.order[bot.next++]);
+            bot.sentAt = System.nanoTime();
+        }
+    }
+
+    private static final class Bot {
+        final ByteBuffer in = ByteBuffer.allocate(64 * Protocol.FRAME_SIZE);
+        final ByteBuffer out = ByteBuffer.allocate(64 * Protocol.FRAME_SIZE);
+        final Match.FrameSink sink = (side, type, flags, value, cell) -> Protocol.put(out, type, flags, value, cell);
+        SocketChannel channel;
+        int side;
+        AdjacencyRule adjacency;
+        int width;
+        int height;
+        int[] sizes = new int[16];
+        int shipCount;
+        Board board;
+        FleetCommitment commitment;
+        int[] order = new int[0];
+        int next;
+        int seq;
+        long sentAt;
+        boolean over;
+
+        void reset() {
+            in.clear();
+            out.clear();
+            next = 0;
+            shipCount = 0;
+            over = false;
+        }
+
+        void addShips(int size, int count) {
+            if (shipCount + count > sizes.length) {
+                sizes = Arrays.copyOf(sizes, Math.max(2 * sizes.length, shipCount + count));
+            }
+            Arrays.fill(sizes, shipCount, shipCount + count, size);
+            shipCount += count;
+        }
+
+        // A fresh fleet for the announced rules, on the last match's board when they are the same.
+        void layOut(Random random) {
+            GameConfig config = new GameConfig(width, height, Arrays.copyOf(sizes, shipCount), adjacency);
+            if (board == null || !board.getConfig().equals(config)) {
+                board = new Board(config);
+            }
+            Fleet.generateShips(board, random);
+            commitment = FleetCommitment.of(board, random);
+        }
+
+        // A fresh random firing order over every cell of the board.
+        void shuffle(int cells, SplittableRandom random) {
+            if (order.length != cells) {
+                order = new int[cells];
+                for (int i = 0; i < cells; i++) order[i] = i;
+            }
+            for (int i = cells - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.battleshipgame.server;
+
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.net.Match;
+import com.example.battleshipgame.engine.net.Protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// One event loop owning a set of matches and both connections of each. Frames produced while
+// handling a pass are buffered per connection and written once at the end of the pass, so a
+// shot's RESULT, SHIP and GAME_OVER go out in one syscall. A finished match is closed once its
+// last frames are written. Anything that goes wrong with one match closes that match alone; only
+// a failing selector stops the loop, which then closes every match it held and leaves the
+// failure for GameServer to find.
+final class Shard implements Runnable {
+    private static final Logger LOG = Logger.getLogger(Shard.class.getName());
+
+
+    private final Selector selector;
+    private final GameConfig config;
+    private final ConcurrentLinkedQueue<Pairing> incoming = new ConcurrentLinkedQueue<>();
+    private final List<Connection> dirty = new ArrayList<>();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // Written only by the shard thread.
+    private volatile long started;
+    private volatile long finished;
+    private volatile long abandoned;
+    private volatile long disputed;
+
+    Shard(GameConfig config) throws IOException {
+        this.config = config;
+        this.selector = Selector.open();
+    }
+
+    void submit(SocketChannel first, SocketChannel second) {
+        incoming.add(new Pairing(first, second));
+        selector.wakeup();
+    }
+
+    long started() {
+        return started;
+    }
+
+    long finished() {
+        return finished;
+    }
+
+    long abandoned() {
+        return abandoned;
+    }
+
+    // Finished matches a side lost for answers its revealed fleet did not back, or for breaking
+    // the protocol.
+    long disputed() {
+        return disputed;
+    }
+
+    // Why the loop stopped on its own, or null while it runs.
+    IOException failure() {
+        return failure;
+    }
+
+    int active() {
+        return (int) (started - finished - abandoned);
+    }
+
+    void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Pairing pairing;
+                while ((pairing = incoming.poll()) != null) {
+                    open(pairing);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            markDirty(connection);
+                        }
+                    } catch (RuntimeException e) {
+                        fail(connection.state, e);
+                    }
+                }
+                for (int i = 0; i < dirty.size(); i++) {
+                    Connection connection = dirty.get(i);
+                    try {
+                        flush(connection);
+                    } catch (RuntimeException e) {
+                        fail(connection.state, e);
+                    }
+                }
+                dirty.clear();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                abandon(((Connection) key.attachment()).state);
+            }
+            Pairing pairing;
+            while ((pairing = incoming.poll()) != null) {
+                closeQuietly(pairing.first);
+                closeQuietly(pairing.second);
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    // A bug or a cancelled key in one match must not take the others down with it.
+    private void fail(MatchState state, RuntimeException e) {
+        LOG.log(Level.WARNING, "Closing a match after an unexpected error", e);
+        abandon(state);
+    }
+
+    private void abandon(MatchState state) {
+        if (!state.done) {
+            state.done = true;
+            abandoned++;
+        }
+        closeMatch(state);
+    }
+
+    private void open(Pairing pairing) {
+        MatchState state = new MatchState(new Match(config));
+        try {
+            state.sides[0] = register(pairing.first, state, 0);
+            state.sides[1] = register(pairing.second, state, 1);
+        } catch (IOException e) {
+            closeQuietly(pairing.first);
+            closeQuietly(pairing.second);
+            return;
+        }
+        started++;
+        state.match.start(state);
+    }
+
+    private Connection register(SocketChannel channel, MatchState state, int side) throws ClosedChannelException {
+        Connection connection = new Connection(channel, state, side);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        return connection;
+    }
+
+    private void read(Connection connection) {
+        int read;
+        try {
+            read = connection.channel.read(connection.in);
+        } catch (IOException e) {
+            read = -1;
+        }
+        MatchState state = connection.state;
+        if (read == -1) {
+            abandon(state);
+            return;
+        }
+        ByteBuffer in = connection.in;
+        in.flip();
+        while (in.remaining() >= Protocol.FRAME_SIZE) {
+            byte type = in.get();
+            int flags = in.get() & 0xff;
+            int value = in.getShort() & 0xffff;
+            int cell = in.getInt();
+            if (!state.done) {
+                state.match.onFrame(connection.side, type, flags, value, cell, state);
+                if (state.match.isOver()) {
+                    state.done = true;
+                    finished++;
+                    if (state.match.isDisputed()) {
+                        disputed++;
+                    }
+                }
+            }
+        }
+        in.compact();
+    }
+
+    private void markDirty(Connection connection) {
+        if (!connection.dirty) {
+            connection.dirty = true;
+            dirty.add(connection);
+        }
+    }
+
+    private void flush(Connection connection) {
+        connection.dirty = false;
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        ByteBuffer out = connection.out;
+        out.flip();
+        try {
+            connection.channel.write(out);
+        } catch (IOException e) {
+            out.clear();
+            abandon(connection.state);
+            return;
+        }
+        boolean blocked = out.hasRemaining();
+        out.compact();
+        connection.key.interestOps(blocked ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        if (!blocked && connection.state.done) {
+            closeQuietly(connection.channel);
+        }
+    }
+
+    private void closeMatch(MatchState state) {
+        for (Connection connection : state.sides) {
+            if (connection != null) {
+                closeQuietly(connection.channel);
+            }
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private final class MatchState implements Match.FrameSink {
+        final Match match;
+        final Connection[] sides = new Connection[2];
+        boolean done;
+
+        MatchState(Match match) {
+            this.match = match;
+        }
+
+        @Override
+        public void send(int side, byte type, int flags, int value, int cell) {
+            Connection connection = sides[side];
+            if (connection.out.remaining() < Protocol.FRAME_SIZE) {
+                ByteBuffer bigger = ByteBuffer.allocate(connection.out.capacity() * 2);
+                connection.out.flip();
+                bigger.put(connection.out);
+                connection.out = bigger;
+            }
+            Protocol.put(connection.out, type, flags, value, cell);
+            markDirty(connection);
+        }
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final MatchState state;
+        final int side;
+        final ByteBuffer in = ByteBuffer.allocate(32 * Protocol.FRAME_SIZE);
+        ByteBuffer out = ByteBuffer.allocate(32 * Protocol.FRAME_SIZE);
+        SelectionKey key;
+        boolean dirty;
+
+        Connection(SocketChannel channel, MatchState state, int side) {
+            this.channel = channel;
+            this.state = state;
+            this.side = side;
+        }
+    }
+
+    private static final class Pairing {
+        final SocketChannel first;
+        final SocketChannel second;
+
+        Pairing(SocketChannel first, SocketChannel second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.battleshipgame.server;
+
+import com.example.battleshipgame.engine.GameConfig;
+import com.example.battleshipgame.engine.metrics.Histogram;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import static org.junit.Assert.*;
+
+public class GameServerTest {
+    @Test
+    public void botsFinishMatchesAcrossShards() throws Exception {
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, GameConfig.CLASSIC);
+        server.start();
+        try {
+            LoadGenerator generator = new LoadGenerator(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()), 40, 2);
+            LoadGenerator.Report report = generator.run(0, 2);
+
+            assertTrue(report.matches > 0);
+            assertTrue(report.latency.count() > report.matches);
+            assertTrue(server.finished() >= report.matches);
+            assertEquals(0, server.disputed());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void histogramPercentilesStayWithinABucket() {
+        Histogram histogram = new Histogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+        assertEquals(10_000, histogram.count());
+        long p50 = histogram.percentile(50);
+        long p99 = histogram.percentile(99);
+        assertTrue(p50 >= 5_000 && p50 <= 5_000 * 17 / 16);
+        assertTrue(p99 >= 9_900 && p99 <= 10_000);
+    }
+}
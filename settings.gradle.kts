@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "BattleshipGame"
 include(":app")
+include(":engine")
+include(":server")